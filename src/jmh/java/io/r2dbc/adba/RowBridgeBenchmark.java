@@ -0,0 +1,244 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.adba.mock.MockParameterizedRowOperation;
+import io.r2dbc.adba.mock.MockRowColumn;
+import io.r2dbc.adba.mock.MockSubmission;
+import io.r2dbc.adba.mock.ResultBuilder;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.ParameterizedRowPublisherOperation;
+import jdk.incubator.sql2.Result.RowColumn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.EmitterProcessor;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Benchmarks comparing the {@link AdbaStatement.FlowSubscriberAdapter} row bridge with the previous bridge that routed
+ * rows through an {@link EmitterProcessor} and a {@code handle} stage. Rows are emitted synchronously on demand so that
+ * the benchmark measures the bridge only. Run with {@code -prof gc} to compare allocations per row.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowBridgeBenchmark {
+
+    private static final BiFunction<Row, RowMetadata, Object> MAPPING_FUNCTION = (row, metadata) -> row.get(1, Integer.class);
+
+    @Param({"1", "100", "10000"})
+    int rows;
+
+    private List<MockRowColumn> rowColumns;
+
+    private AdbaRowMetadata metadata;
+
+    private final OperationPipeline pipeline = OperationPipeline.create(0);
+
+    @Setup
+    public void setUp() {
+
+        ResultBuilder result = ResultBuilder.builder() //
+                .withColumn("id", AdbaType.INTEGER) //
+                .withColumn("name", AdbaType.VARCHAR) //
+                .andResult();
+
+        for (int i = 0; i < this.rows; i++) {
+            result.withRow(i, "name-" + i);
+        }
+
+        this.rowColumns = result.build();
+        this.metadata = AdbaRowMetadata.create(this.rowColumns.get(0));
+    }
+
+    @Benchmark
+    public Object flowSubscriberAdapter() {
+
+        RowPublisherOperation operation = new RowPublisherOperation(this.rowColumns);
+
+        return Flux.<Object>from(subscriber -> new AdbaStatement.FlowSubscriberAdapter<>(subscriber, MAPPING_FUNCTION, it -> this.metadata,
+                this.pipeline, demand -> operation).start()).blockLast();
+    }
+
+    @Benchmark
+    public Object emitterProcessor() {
+
+        RowPublisherOperation operation = new RowPublisherOperation(this.rowColumns);
+
+        return Flux.defer(() -> {
+
+            EmitterProcessor<RowColumn> processor = EmitterProcessor.create(true);
+
+            operation.subscribe(new ProcessorSubscriber(processor), new CompletableFuture<>()).submit();
+
+            return processor;
+        }).handle((rowColumn, sink) -> {
+
+            Object mapped = MAPPING_FUNCTION.apply(AdbaRow.create(rowColumn, this.metadata), this.metadata);
+
+            if (mapped != null) {
+                sink.next(mapped);
+            }
+        }).blockLast();
+    }
+
+    /**
+     * Row publisher emitting rows synchronously on the requesting thread.
+     */
+    static class RowPublisherOperation extends MockParameterizedRowOperation<Object> {
+
+        private final List<? extends RowColumn> rows;
+
+        private Flow.Subscriber<? super RowColumn> subscriber;
+
+        RowPublisherOperation(List<? extends RowColumn> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public ParameterizedRowPublisherOperation<Object> subscribe(Flow.Subscriber<? super RowColumn> subscriber, CompletionStage<? extends Object> result) {
+
+            this.subscriber = subscriber;
+            return this;
+        }
+
+        @Override
+        public MockSubmission<Object> submit() {
+
+            this.subscriber.onSubscribe(new RowSubscription(this.subscriber, this.rows));
+            return super.submit();
+        }
+    }
+
+    static class RowSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super RowColumn> subscriber;
+
+        private final List<? extends RowColumn> rows;
+
+        private long requested;
+
+        private int index;
+
+        private boolean emitting;
+
+        private boolean cancelled;
+
+        RowSubscription(Flow.Subscriber<? super RowColumn> subscriber, List<? extends RowColumn> rows) {
+            this.subscriber = subscriber;
+            this.rows = rows;
+        }
+
+        @Override
+        public void request(long n) {
+
+            this.requested = this.requested + n < 0 ? Long.MAX_VALUE : this.requested + n;
+
+            if (this.emitting) {
+                return;
+            }
+
+            this.emitting = true;
+
+            while (this.requested > 0 && this.index < this.rows.size() && !this.cancelled) {
+
+                this.requested--;
+                this.subscriber.onNext(this.rows.get(this.index++));
+            }
+
+            if (this.index == this.rows.size() && !this.cancelled) {
+
+                this.cancelled = true;
+                this.subscriber.onComplete();
+            }
+
+            this.emitting = false;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+    }
+
+    /**
+     * Flow-to-Reactive-Streams adapter of the previous bridge forwarding all signals to an {@link EmitterProcessor}.
+     */
+    static class ProcessorSubscriber implements Flow.Subscriber<RowColumn> {
+
+        private final EmitterProcessor<RowColumn> processor;
+
+        ProcessorSubscriber(EmitterProcessor<RowColumn> processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+
+            this.processor.onSubscribe(new Subscription() {
+
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(RowColumn item) {
+            this.processor.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.processor.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.processor.onComplete();
+        }
+    }
+}
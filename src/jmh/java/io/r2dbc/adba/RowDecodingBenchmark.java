@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.adba.mock.MockRowColumn;
+import io.r2dbc.adba.mock.ResultBuilder;
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.SqlType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for decoding a row of 20 columns through {@link AdbaRow}.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowDecodingBenchmark {
+
+    private static final int COLUMNS = 20;
+
+    private final Class<?>[] types = new Class<?>[COLUMNS + 1];
+
+    private final String[] names = new String[COLUMNS + 1];
+
+    private MockRowColumn rowColumn;
+
+    private AdbaRow row;
+
+    @Setup
+    public void setUp() {
+
+        SqlType[] sqlTypes = {AdbaType.INTEGER, AdbaType.BIGINT, AdbaType.VARCHAR, AdbaType.DOUBLE, AdbaType.BOOLEAN};
+        Object[] values = {42, 42L, "foo", 1.5D, true};
+
+        ResultBuilder.ColumnDefBuilder columns = ResultBuilder.builder();
+        Object[] row = new Object[COLUMNS];
+
+        for (int i = 0; i < COLUMNS; i++) {
+
+            int kind = i % values.length;
+
+            this.names[i + 1] = "column" + i;
+            this.types[i + 1] = values[kind].getClass();
+            columns.withColumn(this.names[i + 1], sqlTypes[kind]);
+            row[i] = values[kind];
+        }
+
+        this.rowColumn = columns.andResult().withRow(row).build().get(0);
+        this.row = AdbaRow.create(this.rowColumn, AdbaRowMetadata.create(this.rowColumn));
+    }
+
+    /**
+     * Baseline reading the driver columns without decoder lookup.
+     */
+    @Benchmark
+    public void driverColumns(Blackhole blackhole) {
+
+        for (int i = 1; i <= COLUMNS; i++) {
+            blackhole.consume(this.rowColumn.at(i).get(this.types[i]));
+        }
+    }
+
+    @Benchmark
+    public void decodeByIndex(Blackhole blackhole) {
+
+        for (int i = 1; i <= COLUMNS; i++) {
+            blackhole.consume(this.row.get(i, this.types[i]));
+        }
+    }
+
+    @Benchmark
+    public void decodeByName(Blackhole blackhole) {
+
+        for (int i = 1; i <= COLUMNS; i++) {
+            blackhole.consume(this.row.get(this.names[i], this.types[i]));
+        }
+    }
+
+    /**
+     * Alternate between the column type and {@link Object} for each column.
+     */
+    @Benchmark
+    public void decodeAlternatingTypes(Blackhole blackhole) {
+
+        for (int i = 1; i <= COLUMNS; i++) {
+            blackhole.consume(this.row.get(i, this.types[i]));
+            blackhole.consume(this.row.get(i, Object.class));
+        }
+    }
+}
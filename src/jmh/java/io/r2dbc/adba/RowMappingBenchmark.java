@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.adba.mock.MockRowColumn;
+import io.r2dbc.adba.mock.ResultBuilder;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import jdk.incubator.sql2.AdbaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Benchmarks comparing {@link RowMappers generated row mappers} with hand-written mapping functions.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private final BiFunction<Row, RowMetadata, Person> byName = (row, metadata) -> {
+
+        Person person = new Person();
+        person.setId(row.get("id", Integer.class));
+        person.setFirstName(row.get("first_name", String.class));
+        person.setLastName(row.get("last_name", String.class));
+        person.setAge(row.get("age", Integer.class));
+        person.setEmail(row.get("email", String.class));
+        return person;
+    };
+
+    private final BiFunction<Row, RowMetadata, Person> byIndex = (row, metadata) -> {
+
+        Person person = new Person();
+        person.setId(row.get(1, Integer.class));
+        person.setFirstName(row.get(2, String.class));
+        person.setLastName(row.get(3, String.class));
+        person.setAge(row.get(4, Integer.class));
+        person.setEmail(row.get(5, String.class));
+        return person;
+    };
+
+    private final BiFunction<Row, RowMetadata, Person> rowMapper = RowMappers.forType(Person.class);
+
+    private AdbaRow row;
+
+    private AdbaRowMetadata metadata;
+
+    @Setup
+    public void setUp() {
+
+        MockRowColumn rowColumn = ResultBuilder.builder() //
+                .withColumn("id", AdbaType.INTEGER) //
+                .withColumn("first_name", AdbaType.VARCHAR) //
+                .withColumn("last_name", AdbaType.VARCHAR) //
+                .withColumn("age", AdbaType.INTEGER) //
+                .withColumn("email", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow(1, "Walter", "White", 50, "walter@example.com") //
+                .build().get(0);
+
+        this.metadata = AdbaRowMetadata.create(rowColumn);
+        this.row = AdbaRow.create(rowColumn, this.metadata);
+    }
+
+    @Benchmark
+    public Person handWrittenByName() {
+        return this.byName.apply(this.row, this.metadata);
+    }
+
+    @Benchmark
+    public Person handWrittenByIndex() {
+        return this.byIndex.apply(this.row, this.metadata);
+    }
+
+    @Benchmark
+    public Person rowMapper() {
+        return this.rowMapper.apply(this.row, this.metadata);
+    }
+
+    public static class Person {
+
+        private int id;
+
+        private String firstName;
+
+        private String lastName;
+
+        private int age;
+
+        private String email;
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+
+        public void setLastName(String lastName) {
+            this.lastName = lastName;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+    }
+}
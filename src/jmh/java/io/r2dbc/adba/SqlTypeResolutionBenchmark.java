@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.SqlClob;
+import jdk.incubator.sql2.SqlType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks comparing the {@link ClassValue}-backed {@link SqlTypeResolver} with a linear scan over the type map on a
+ * mix of common and uncommon parameter types.
+ *
+ * @author Mark Paluch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlTypeResolutionBenchmark {
+
+    private static final Map<Class<?>, SqlType> TYPE_MAP = new LinkedHashMap<>();
+
+    static {
+
+        for (AdbaType adbaType : AdbaType.values()) {
+            TYPE_MAP.put(adbaType.getJavaType(), adbaType);
+        }
+
+        TYPE_MAP.put(Void.class, AdbaType.NULL);
+        TYPE_MAP.put(String.class, AdbaType.VARCHAR);
+        TYPE_MAP.put(Object.class, AdbaType.OTHER);
+        TYPE_MAP.put(Double.class, AdbaType.DOUBLE);
+        TYPE_MAP.put(SqlClob.class, AdbaType.CLOB);
+        TYPE_MAP.put(byte[].class, AdbaType.BINARY);
+    }
+
+    private final Object[] common = {"foo", 42, 42L, 1.5D, true, "bar"};
+
+    private final Object[] uncommon = {new BigDecimal("1.5"), LocalDate.now(), LocalDateTime.now(), OffsetDateTime.now(),
+            UUID.randomUUID(), new ArrayList<>()};
+
+    private final SqlTypeResolver resolver = SqlTypeResolver.create();
+
+    private final SqlTypeResolver customResolver = SqlTypeResolver.create(Collections.<Class<?>, SqlType>singletonMap(List.class, AdbaType.ARRAY));
+
+    @Benchmark
+    public void classValueCommon(Blackhole blackhole) {
+
+        for (Object value : this.common) {
+            blackhole.consume(this.resolver.getType(value));
+        }
+    }
+
+    @Benchmark
+    public void classValueUncommon(Blackhole blackhole) {
+
+        for (Object value : this.uncommon) {
+            blackhole.consume(this.resolver.getType(value));
+        }
+    }
+
+    @Benchmark
+    public void classValueUncommonWithCustomMapping(Blackhole blackhole) {
+
+        for (Object value : this.uncommon) {
+            blackhole.consume(this.customResolver.getType(value));
+        }
+    }
+
+    @Benchmark
+    public void linearScanCommon(Blackhole blackhole) {
+
+        for (Object value : this.common) {
+            blackhole.consume(scan(value));
+        }
+    }
+
+    @Benchmark
+    public void linearScanUncommon(Blackhole blackhole) {
+
+        for (Object value : this.uncommon) {
+            blackhole.consume(scan(value));
+        }
+    }
+
+    /**
+     * Type resolution scanning the type map for each value: first for the exact class, then for an assignable type.
+     */
+    private static SqlType scan(Object value) {
+
+        for (Map.Entry<Class<?>, SqlType> entry : TYPE_MAP.entrySet()) {
+            if (entry.getKey().equals(value.getClass())) {
+                return entry.getValue();
+            }
+        }
+
+        for (Map.Entry<Class<?>, SqlType> entry : TYPE_MAP.entrySet()) {
+            if (entry.getKey() != Object.class && entry.getKey().isInstance(value)) {
+                return entry.getValue();
+            }
+        }
+
+        return AdbaType.OTHER;
+    }
+}
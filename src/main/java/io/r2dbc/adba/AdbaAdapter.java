@@ -27,6 +27,9 @@ import java.util.function.BiFunction;
  * <pre class="code">
  * jdk.incubator.sql2.DataSource dataSource = …;
  * ConnectionFactory connectionFactory = AdbaAdapter.fromDataSource(dataSource);
+ *
+ * // or pooled
+ * AdbaConnectionPool pool = AdbaAdapter.pooledFromDataSource(dataSource, AdbaPoolOptions.create());
  * </pre>
  *
  * <h3>State</h3> R2DBC supports a broader feature-set than ADBA which leaves certain operations unsupported.
@@ -35,13 +38,21 @@ import java.util.function.BiFunction;
  * <ul>
  * <li>{@link jdk.incubator.sql2.RowCountOperation} through {@link Result#getRowsUpdated()}</li>
  * <li>{@link jdk.incubator.sql2.ParameterizedRowOperation} through {@link Result#map(BiFunction)}</li>
+ * <li>{@link io.r2dbc.spi.Batch} through a {@link jdk.incubator.sql2.OperationGroup} of row count operations</li>
+ * <li>Concurrent execution of independent statements through
+ * {@link AdbaConnection#executeIndependently(java.util.Collection, java.util.function.Function)}</li>
  * <li>Subset of {@link io.r2dbc.spi.RowMetadata} based on result set column identifiers</li>
+ * <li>Savepoints and Transaction Isolation Levels through deferred SQL commands</li>
+ * <li>Generated values through a {@link GeneratedValuesRewriter} and a
+ * {@link jdk.incubator.sql2.ParameterizedRowPublisherOperation}</li>
+ * <li>Value conversion through {@link Codec codecs} with decoders selected once per result column</li>
+ * <li>Mapping rows to records and POJOs through generated row mappers</li>
+ * <li>Columnar consumption of rows through {@link RowBatch}es of primitive column arrays</li>
+ * <li>Mapping and collecting rows within the driver through {@link jdk.incubator.sql2.ParameterizedRowOperation#collect}</li>
  * </ul>
  * Unsupported operations:
  * <ul>
- * <li>Savepoints</li>
  * <li>Setting of Transaction Mutability</li>
- * <li>Setting of Transaction Isolation Levels</li>
  * </ul>
  *
  * @author Mark Paluch
@@ -57,7 +68,50 @@ public final class AdbaAdapter {
      */
     public static ConnectionFactory fromDataSource(DataSource dataSource) {
 
+        return fromDataSource(dataSource, AdbaOptions.create());
+    }
+
+    /**
+     * Create a {@link ConnectionFactory} given an {@link DataSource ADBA DataSource} and {@link AdbaOptions}.
+     *
+     * @param dataSource must not be {@literal null}.
+     * @param options    must not be {@literal null}.
+     * @return the {@link ConnectionFactory} adapter for {@link DataSource}.
+     */
+    public static ConnectionFactory fromDataSource(DataSource dataSource, AdbaOptions options) {
+
         Assert.notNull(dataSource, "DataSource must not be null!");
-        return AdbaConnectionFactory.create(dataSource);
+        Assert.notNull(options, "AdbaOptions must not be null!");
+
+        return AdbaConnectionFactory.create(dataSource, options);
+    }
+
+    /**
+     * Create a pooling {@link ConnectionFactory} given an {@link DataSource ADBA DataSource} and {@link AdbaPoolOptions}.
+     *
+     * @param dataSource  must not be {@literal null}.
+     * @param poolOptions must not be {@literal null}.
+     * @return the {@link AdbaConnectionPool} for {@link DataSource}.
+     */
+    public static AdbaConnectionPool pooledFromDataSource(DataSource dataSource, AdbaPoolOptions poolOptions) {
+        return pooledFromDataSource(dataSource, AdbaOptions.create(), poolOptions);
+    }
+
+    /**
+     * Create a pooling {@link ConnectionFactory} given an {@link DataSource ADBA DataSource}, {@link AdbaOptions}, and
+     * {@link AdbaPoolOptions}. Closing a {@link io.r2dbc.spi.Connection} obtained from the pool returns it to the pool.
+     *
+     * @param dataSource  must not be {@literal null}.
+     * @param options     must not be {@literal null}.
+     * @param poolOptions must not be {@literal null}.
+     * @return the {@link AdbaConnectionPool} for {@link DataSource}.
+     */
+    public static AdbaConnectionPool pooledFromDataSource(DataSource dataSource, AdbaOptions options, AdbaPoolOptions poolOptions) {
+
+        Assert.notNull(dataSource, "DataSource must not be null!");
+        Assert.notNull(options, "AdbaOptions must not be null!");
+        Assert.notNull(poolOptions, "AdbaPoolOptions must not be null!");
+
+        return AdbaConnectionPool.create(AdbaConnectionFactory.create(dataSource, options), poolOptions);
     }
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import jdk.incubator.sql2.OperationGroup;
+import jdk.incubator.sql2.ParameterizedRowCountOperation;
+import jdk.incubator.sql2.Session;
+import jdk.incubator.sql2.Submission;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import static jdk.incubator.sql2.Result.RowCount;
+
+/**
+ * R2DBC wrapper for a batch of SQL statements executed through a {@link OperationGroup ADBA OperationGroup}. All
+ * statements are submitted as members of a single {@link OperationGroup} before the first member completes. The
+ * {@link OperationGroup} is submitted through the connection's {@link OperationPipeline}. Members
+ * are executed sequentially and depend on each other so that a failing member causes subsequent members to be skipped.
+ * <p>
+ * Batch members are executed as {@link jdk.incubator.sql2.RowCountOperation row count operations}. Results therefore
+ * report {@link Result#getRowsUpdated() update counts} only and do not emit rows. Statements returning rows (queries
+ * starting with {@code SELECT}, {@code WITH}, {@code VALUES}, or {@code TABLE} and statements with a
+ * {@code RETURNING} clause) are rejected when {@link #add(String) added}; use {@link AdbaStatement} to run them.
+ *
+ * @author Mark Paluch
+ */
+class AdbaBatch implements Batch {
+
+    private final List<String> statements = new ArrayList<>();
+
+    private final Session session;
+
+    private final OperationPipeline pipeline;
+
+    private final Duration timeout;
+
+    private AdbaBatch(Session session, OperationPipeline pipeline, Duration timeout) {
+        this.session = session;
+        this.pipeline = pipeline;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Creates a {@link AdbaBatch} given {@link Session}.
+     *
+     * @param session must not be {@literal null}.
+     * @return the {@link AdbaBatch} for {@link Session}.
+     */
+    static AdbaBatch create(Session session) {
+        return create(session, OperationPipeline.create(0));
+    }
+
+    /**
+     * Creates a {@link AdbaBatch} given {@link Session} and the {@link OperationPipeline} of the connection through
+     * which the {@link OperationGroup} is submitted.
+     *
+     * @param session  must not be {@literal null}.
+     * @param pipeline must not be {@literal null}.
+     * @return the {@link AdbaBatch} for {@link Session}.
+     */
+    static AdbaBatch create(Session session, OperationPipeline pipeline) {
+        return create(session, pipeline, Duration.ZERO);
+    }
+
+    /**
+     * Creates a {@link AdbaBatch} given {@link Session}, the {@link OperationPipeline} of the connection, and a timeout
+     * to apply to each statement of the batch.
+     *
+     * @param session  must not be {@literal null}.
+     * @param pipeline must not be {@literal null}.
+     * @param timeout  must not be {@literal null}. {@link Duration#ZERO} to not apply a timeout.
+     * @return the {@link AdbaBatch} for {@link Session}.
+     * @see jdk.incubator.sql2.Operation#timeout(Duration)
+     */
+    static AdbaBatch create(Session session, OperationPipeline pipeline, Duration timeout) {
+
+        Assert.notNull(session, "Session must not be null!");
+        Assert.notNull(pipeline, "OperationPipeline must not be null!");
+        Assert.notNull(timeout, "Timeout must not be null!");
+
+        return new AdbaBatch(session, pipeline, timeout);
+    }
+
+    @Override
+    public AdbaBatch add(String sql) {
+
+        Assert.notNull(sql, "SQL must not be null!");
+        Assert.isTrue(!returnsRows(sql), () -> String.format("Statement [%s] returns rows; batches support only statements returning update counts", sql));
+
+        this.statements.add(sql);
+        return this;
+    }
+
+    @Override
+    public Flux<AdbaBatchResult> execute() {
+
+        return Flux.defer(() -> {
+
+            if (this.statements.isEmpty()) {
+                return Flux.empty();
+            }
+
+            List<String> statements = new ArrayList<>(this.statements);
+            List<AdbaBatchResult> results = new ArrayList<>(statements.size());
+            List<CompletableFuture<Number>> counts = new ArrayList<>(statements.size());
+
+            for (int i = 0; i < statements.size(); i++) {
+
+                CompletableFuture<Number> count = new CompletableFuture<>();
+                counts.add(count);
+                results.add(new AdbaBatchResult(count));
+            }
+
+            AtomicReference<Submission<Object>> groupSubmission = new AtomicReference<>();
+
+            this.pipeline.enqueue(() -> {
+
+                try {
+
+                    OperationGroup<Object, Object> group = this.session.operationGroup();
+                    Submission<Object> submission = group.submit();
+                    groupSubmission.set(submission);
+
+                    try {
+                        for (int i = 0; i < statements.size(); i++) {
+
+                            CompletableFuture<Number> count = counts.get(i);
+                            ParameterizedRowCountOperation<Number> operation = group.rowCountOperation(statements.get(i));
+
+                            if (!this.timeout.isZero()) {
+                                operation.timeout(this.timeout);
+                            }
+
+                            operation.apply(RowCount::getCount).submit().getCompletionStage().whenComplete((result, e) -> {
+
+                                if (e != null) {
+                                    count.completeExceptionally(e);
+                                } else {
+                                    count.complete(result);
+                                }
+                            });
+                        }
+                    } finally {
+                        group.close();
+                    }
+
+                    return submission.getCompletionStage();
+                } catch (RuntimeException e) {
+
+                    counts.forEach(it -> it.completeExceptionally(e));
+                    return null;
+                }
+            }, e -> counts.forEach(it -> it.completeExceptionally(e)));
+
+            return Flux.fromIterable(results).doOnCancel(() -> {
+
+                Submission<Object> submission = groupSubmission.get();
+                if (submission != null) {
+                    submission.cancel();
+                }
+            });
+        }).onErrorMap(AdbaUtils.exceptionMapper());
+    }
+
+    private static boolean returnsRows(String sql) {
+
+        String code = SqlText.mask(sql);
+
+        switch (SqlText.getLeadingKeyword(code)) {
+            case "SELECT":
+            case "WITH":
+            case "VALUES":
+            case "TABLE":
+                return true;
+            default:
+                return SqlText.hasReturningClause(code);
+        }
+    }
+
+    static class AdbaBatchResult implements Result {
+
+        private final CompletionStage<Number> count;
+
+        AdbaBatchResult(CompletionStage<Number> count) {
+            this.count = count;
+        }
+
+        @Override
+        public Mono<Integer> getRowsUpdated() {
+            return Mono.fromCompletionStage(this.count).map(Number::intValue).onErrorMap(AdbaUtils.exceptionMapper());
+        }
+
+        /**
+         * Batch members do not return rows. The returned {@link Flux} completes empty once the member completes, or
+         * emits its error.
+         */
+        @Override
+        public <T> Flux<T> map(BiFunction<Row, RowMetadata, ? extends T> f) {
+
+            Assert.notNull(f, "Mapping function must not be null!");
+
+            return getRowsUpdated().thenMany(Flux.empty());
+        }
+    }
+}
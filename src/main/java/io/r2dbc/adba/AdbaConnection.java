@@ -15,28 +15,79 @@
  */
 package io.r2dbc.adba;
 
-import io.r2dbc.spi.Batch;
 import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.IsolationLevel;
+import jdk.incubator.sql2.OperationGroup;
+import jdk.incubator.sql2.Session;
+import jdk.incubator.sql2.TransactionCompletion;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
- * R2DBC wrapper for a {@link jdk.incubator.sql2.Session ADBA Connection}.
+ * R2DBC wrapper for a {@link jdk.incubator.sql2.Session ADBA Connection}. Statements, batches and transaction control
+ * are submitted through a per-connection {@link OperationPipeline} so that concurrently executed statements are
+ * submitted back to back in subscription order.
+ * <p>
+ * Statements that do not depend on each other can be {@link #executeIndependently(Collection, Function) executed
+ * concurrently} through a parallel and independent {@link OperationGroup}.
+ * <p>
+ * Savepoints and the transaction isolation level are controlled through SQL commands that are deferred and submitted
+ * along with the next statement. Isolation level changes take effect with the next transaction.
  *
  * @author Mark Paluch
  * @see jdk.incubator.sql2.Session
  */
-class AdbaConnection implements Connection {
+public final class AdbaConnection implements Connection {
 
     private final jdk.incubator.sql2.Session delegate;
 
+    private final AdbaOptions options;
+
+    private final StatementCache statementCache;
+
+    private final OperationPipeline pipeline;
+
+    private final TransactionState transaction;
+
+    private final SessionCommands commands;
+
+    private final @Nullable
+    Supplier<Mono<Void>> closeFunction;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
     /**
      * Create a new {@link AdbaConnection} for an {@link jdk.incubator.sql2.Session ADBA Connection}.
      *
-     * @param delegate must not be {@literal null}.
+     * @param delegate       must not be {@literal null}.
+     * @param options        must not be {@literal null}.
+     * @param statementCache must not be {@literal null}.
+     * @param pipeline       must not be {@literal null}.
+     * @param transaction    must not be {@literal null}.
+     * @param commands       must not be {@literal null}.
+     * @param closeFunction  function to invoke on {@link #close()} instead of closing the session. Can be
+     *                       {@literal null}.
      */
-    private AdbaConnection(jdk.incubator.sql2.Session delegate) {
+    private AdbaConnection(jdk.incubator.sql2.Session delegate, AdbaOptions options, StatementCache statementCache,
+                           OperationPipeline pipeline, TransactionState transaction, SessionCommands commands,
+                           @Nullable Supplier<Mono<Void>> closeFunction) {
         this.delegate = delegate;
+        this.options = options;
+        this.statementCache = statementCache;
+        this.pipeline = pipeline;
+        this.transaction = transaction;
+        this.commands = commands;
+        this.closeFunction = closeFunction;
     }
 
     /**
@@ -46,59 +97,314 @@ class AdbaConnection implements Connection {
      * @return {@link AdbaConnection} for the {@link jdk.incubator.sql2.Session ADBA Connection}.
      */
     public static AdbaConnection create(jdk.incubator.sql2.Session delegate) {
+        return create(delegate, AdbaOptions.create());
+    }
+
+    /**
+     * Create a new {@link AdbaConnection} for an {@link jdk.incubator.sql2.Session ADBA Connection} using
+     * {@link AdbaOptions}.
+     *
+     * @param delegate must not be {@literal null}.
+     * @param options  must not be {@literal null}.
+     * @return {@link AdbaConnection} for the {@link jdk.incubator.sql2.Session ADBA Connection}.
+     */
+    public static AdbaConnection create(jdk.incubator.sql2.Session delegate, AdbaOptions options) {
 
         Assert.notNull(delegate, "Connection must not be null!");
+        Assert.notNull(options, "AdbaOptions must not be null!");
 
-        return new AdbaConnection(delegate);
+        OperationPipeline pipeline = OperationPipeline.create(options.getPipelineDepth());
+        TransactionState transaction = new TransactionState();
+
+        return new AdbaConnection(delegate, options, StatementCache.create(options.getStatementCacheSize()), pipeline,
+                transaction, SessionCommands.create(delegate, pipeline, transaction), null);
     }
 
+    /**
+     * Create a lease of this {@link AdbaConnection} that shares session, statement cache, pipeline, transaction and
+     * session state but invokes {@code releaseFunction} on {@link #close()} instead of closing the session. Before the
+     * lease is released, session commands that were not submitted yet are discarded, the isolation level is reset to the
+     * session default and the transaction is rolled back if one was begun or commands were pending. The lease is
+     * released even if the rollback fails. Only the first {@link #close()} releases the lease; a released lease rejects
+     * further operations with {@link IllegalStateException}.
+     *
+     * @param releaseFunction must not be {@literal null}.
+     * @return the leased {@link AdbaConnection}.
+     */
+    AdbaConnection lease(Supplier<Mono<Void>> releaseFunction) {
+
+        Assert.notNull(releaseFunction, "Release function must not be null!");
+
+        return new AdbaConnection(this.delegate, this.options, this.statementCache, this.pipeline, this.transaction,
+                this.commands, releaseFunction);
+    }
+
+    /**
+     * Begin a transaction by obtaining a {@link jdk.incubator.sql2.TransactionCompletion} from the session. Beginning a
+     * transaction does not require a round trip. A {@link #setTransactionIsolationLevel(IsolationLevel) configured
+     * isolation level} is applied along with the next statement. Calls while a transaction is active are ignored.
+     *
+     * @return a {@link Mono} that completes once the transaction is started.
+     * @see jdk.incubator.sql2.Session#transactionCompletion()
+     */
     @Override
     public Mono<Void> beginTransaction() {
-        return Mono.empty();
+        return whenNotReleased(commands.beginTransaction(delegate::transactionCompletion));
     }
 
     @Override
     public Mono<Void> close() {
-        return AdbaUtils.submitLater(delegate::closeOperation);
+
+        Supplier<Mono<Void>> closeFunction = this.closeFunction;
+
+        if (closeFunction != null) {
+
+            return Mono.defer(() -> {
+
+                // the session is shared with the next borrower once released
+                if (!this.released.compareAndSet(false, true)) {
+                    return Mono.empty();
+                }
+
+                boolean pendingCommands = commands.reset() > 0;
+
+                if (!pendingCommands && !transaction.isActive()) {
+                    return closeFunction.get();
+                }
+
+                // release the lease even if the rollback fails and report the failure afterwards
+                return endTransaction(true) //
+                        .onErrorResume(e -> closeFunction.get().then(Mono.error(e))) //
+                        .then(Mono.defer(closeFunction));
+            });
+        }
+
+        return pipeline.submitLater(delegate::closeOperation);
     }
 
+    /**
+     * Commit the active transaction. Transactions that were not begun through {@link #beginTransaction()}, e.g. because
+     * they were started using SQL, are committed using a new {@link jdk.incubator.sql2.TransactionCompletion} obtained
+     * from the session.
+     *
+     * @return a {@link Mono} that completes once the transaction is committed.
+     */
     @Override
     public Mono<Void> commitTransaction() {
-        return AdbaUtils.executeLater(() -> delegate.commitMaybeRollback(delegate.transactionCompletion())).then();
+        return whenNotReleased(endTransaction(false));
     }
 
     @Override
-    public Batch createBatch() {
-        throw new UnsupportedOperationException();
+    public AdbaBatch createBatch() {
+
+        assertNotReleased();
+
+        return AdbaBatch.create(delegate, pipeline, options.getStatementTimeout());
     }
 
+    /**
+     * Create a savepoint. The {@code SAVEPOINT} command is deferred and submitted along with the next statement which
+     * reports failures of the command.
+     *
+     * @param name the savepoint name, must be a plain SQL identifier.
+     * @return a {@link Mono} that completes once the command is deferred.
+     * @throws IllegalArgumentException if {@code name} is {@literal null} or not a valid identifier.
+     */
     @Override
     public Mono<Void> createSavepoint(String name) {
-        throw new UnsupportedOperationException();
+        return whenNotReleased(commands.createSavepoint(name));
     }
 
     @Override
     public AdbaStatement createStatement(String sql) {
-        return AdbaStatement.create(delegate, sql);
+
+        Assert.notNull(sql, "SQL must not be null!");
+        assertNotReleased();
+
+        return AdbaStatement.create(delegate, statementCache.get(sql), options, pipeline, transaction);
+    }
+
+    /**
+     * Execute {@code statements} concurrently as members of a {@link OperationGroup#parallel() parallel} and
+     * {@link OperationGroup#independent() independent} {@link OperationGroup}. Members may be executed in any order and
+     * a failing member does not affect the others. Results are consumed through {@code resultFunction} and emitted as
+     * they arrive. Errors are delayed until all members have terminated.
+     * <p>
+     * The {@link OperationGroup} is submitted through the connection's {@link OperationPipeline} and closed once all
+     * results are consumed.
+     *
+     * <pre class="code">
+     * Flux&lt;Object&gt; values = connection.executeIndependently(Arrays.asList(
+     *         connection.createStatement("SELECT COUNT(*) FROM orders"),
+     *         connection.createStatement("SELECT COUNT(*) FROM customers")),
+     *     result -&gt; result.map((row, metadata) -&gt; row.get(1)));
+     * </pre>
+     *
+     * @param statements     statements created by this connection, must not be {@literal null}.
+     * @param resultFunction function to consume each statement's {@link AdbaStatement.AdbaResult}, must not be
+     *                       {@literal null}.
+     * @param <T>            the type of the emitted elements.
+     * @return a {@link Flux} merging the output of {@code resultFunction} for all {@code statements}.
+     * @see jdk.incubator.sql2.OperationGroup#parallel()
+     * @see jdk.incubator.sql2.OperationGroup#independent()
+     */
+    public <T> Flux<T> executeIndependently(Collection<AdbaStatement> statements,
+                                            Function<? super AdbaStatement.AdbaResult, ? extends Publisher<? extends T>> resultFunction) {
+
+        Assert.notNull(statements, "Statements must not be null!");
+        Assert.notNull(resultFunction, "Result function must not be null!");
+        assertNotReleased();
+
+        return Flux.defer(() -> {
+
+            if (statements.isEmpty()) {
+                return Flux.empty();
+            }
+
+            List<AdbaStatement> members = new ArrayList<>(statements);
+
+            return pipeline.submitGroup(() -> {
+
+                OperationGroup<Object, Object> group = delegate.operationGroup();
+                group.parallel().independent();
+
+                return group;
+            }).flatMapMany(group -> Flux.fromIterable(members) //
+                    .flatMapDelayError(statement -> resultFunction.apply(statement.executeIn(group)), members.size(), Queues.XS_BUFFER_SIZE) //
+                    .doFinally(signalType -> group.close()));
+        }).onErrorMap(AdbaUtils.exceptionMapper());
+    }
+
+    /**
+     * Returns the usage counters of the statement cache of this connection. Connections handed out by
+     * {@link AdbaConnectionPool} share the counters of their pooled connection.
+     *
+     * @return the {@link StatementCacheMetrics} of this connection.
+     * @see AdbaOptions#withStatementCacheSize(int)
+     */
+    public StatementCacheMetrics getStatementCacheMetrics() {
+        return this.statementCache;
     }
 
+    /**
+     * @return the {@link OperationPipeline} of this connection.
+     */
+    OperationPipeline getPipeline() {
+        return this.pipeline;
+    }
+
+    /**
+     * Validate the underlying {@link jdk.incubator.sql2.Session} to the given depth.
+     *
+     * @param depth must not be {@literal null}.
+     * @return a {@link Mono} that completes if the session is valid or errors otherwise.
+     * @see jdk.incubator.sql2.Session#validationOperation(Session.Validation)
+     */
+    Mono<Void> validate(Session.Validation depth) {
+
+        Assert.notNull(depth, "Validation depth must not be null!");
+
+        return pipeline.submitLater(() -> delegate.validationOperation(depth));
+    }
+
+    /**
+     * Release a savepoint. The {@code RELEASE SAVEPOINT} command is deferred and submitted along with the next
+     * statement. Releasing a savepoint whose creation is still pending elides both commands.
+     *
+     * @param name the savepoint name, must be a plain SQL identifier.
+     * @return a {@link Mono} that completes once the command is deferred.
+     * @throws IllegalArgumentException if {@code name} is {@literal null} or not a valid identifier.
+     */
     @Override
     public Mono<Void> releaseSavepoint(String name) {
-        throw new UnsupportedOperationException();
+        return whenNotReleased(commands.releaseSavepoint(name));
     }
 
+    /**
+     * Roll back the active transaction. Transactions that were not begun through {@link #beginTransaction()}, e.g.
+     * because they were started using SQL, are rolled back using a new
+     * {@link jdk.incubator.sql2.TransactionCompletion} obtained from the session.
+     *
+     * @return a {@link Mono} that completes once the transaction is rolled back.
+     */
     @Override
     public Mono<Void> rollbackTransaction() {
-        return AdbaUtils.executeLater(delegate::rollback).then();
+        return whenNotReleased(endTransaction(true));
     }
 
+    /**
+     * Roll back to a savepoint. The {@code ROLLBACK TO SAVEPOINT} command is deferred and submitted along with the next
+     * statement. Rolling back to a savepoint whose creation is still pending does not issue a command.
+     *
+     * @param name the savepoint name, must be a plain SQL identifier.
+     * @return a {@link Mono} that completes once the command is deferred.
+     * @throws IllegalArgumentException if {@code name} is {@literal null} or not a valid identifier.
+     */
     @Override
     public Mono<Void> rollbackTransactionToSavepoint(String name) {
-        throw new UnsupportedOperationException();
+        return whenNotReleased(commands.rollbackToSavepoint(name));
     }
 
+    /**
+     * Set the transaction isolation level for transactions begun afterwards through {@link #beginTransaction()}. The
+     * level is applied using {@code SET TRANSACTION ISOLATION LEVEL} as the first command of each such transaction. The
+     * command is deferred and submitted along with the first statement of the transaction which reports failures of the
+     * command. A transaction that is active when calling this method keeps its isolation level as databases either
+     * reject the command once the transaction has run statements or do not apply it to the running transaction.
+     * Statements executed outside of a transaction use the session's default isolation level.
+     *
+     * @param isolationLevel the isolation level, must not be {@literal null}.
+     * @return a {@link Mono} that completes once the isolation level is configured.
+     */
     @Override
     public Mono<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
-        throw new UnsupportedOperationException();
+        return whenNotReleased(commands.setTransactionIsolationLevel(isolationLevel));
+    }
+
+    /**
+     * Reject usage of a lease that was released through {@link #close()}.
+     *
+     * @throws IllegalStateException if this connection is a released lease.
+     */
+    private void assertNotReleased() {
+
+        if (this.released.get()) {
+            throw new IllegalStateException("Connection lease is released");
+        }
+    }
+
+    /**
+     * Defer {@code action} and fail with {@link IllegalStateException} on subscription if this connection is a released
+     * lease.
+     */
+    private Mono<Void> whenNotReleased(Mono<Void> action) {
+
+        return Mono.defer(() -> {
+
+            assertNotReleased();
+            return action;
+        });
+    }
+
+    /**
+     * End the transaction tracked by this connection or, if none is tracked, the transaction of the session.
+     */
+    private Mono<Void> endTransaction(boolean rollback) {
+
+        return Mono.defer(() -> {
+
+            TransactionCompletion tracked = transaction.take();
+
+            return pipeline.executeLater(() -> {
+
+                TransactionCompletion transactionCompletion = tracked != null ? tracked : delegate.transactionCompletion();
+
+                if (rollback) {
+                    transactionCompletion.setRollbackOnly();
+                }
+
+                return delegate.commitMaybeRollback(transactionCompletion);
+            }).then();
+        });
     }
 }
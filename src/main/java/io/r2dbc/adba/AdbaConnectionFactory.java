@@ -21,6 +21,9 @@ import jdk.incubator.sql2.DataSource;
 import jdk.incubator.sql2.Session;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * R2DBC wrapper for a {@link jdk.incubator.sql2.DataSource ADBA DataSource}.
  *
@@ -30,13 +33,17 @@ class AdbaConnectionFactory implements ConnectionFactory {
 
     private final DataSource dataSource;
 
+    private final AdbaOptions options;
+
     /**
-     * Creates a new {@link AdbaConnectionFactory} given {@link DataSource}.
+     * Creates a new {@link AdbaConnectionFactory} given {@link DataSource} and {@link AdbaOptions}.
      *
      * @param dataSource must not be {@literal null}.
+     * @param options    must not be {@literal null}.
      */
-    private AdbaConnectionFactory(DataSource dataSource) {
+    private AdbaConnectionFactory(DataSource dataSource, AdbaOptions options) {
         this.dataSource = dataSource;
+        this.options = options;
     }
 
     /**
@@ -46,14 +53,29 @@ class AdbaConnectionFactory implements ConnectionFactory {
      * @return the {@link AdbaConnectionFactory} for {@link DataSource}.
      */
     static AdbaConnectionFactory create(DataSource dataSource) {
-        return new AdbaConnectionFactory(dataSource);
+        return create(dataSource, AdbaOptions.create());
+    }
+
+    /**
+     * Creates a new {@link AdbaConnectionFactory} given {@link DataSource} and {@link AdbaOptions}.
+     *
+     * @param dataSource must not be {@literal null}.
+     * @param options    must not be {@literal null}.
+     * @return the {@link AdbaConnectionFactory} for {@link DataSource}.
+     */
+    static AdbaConnectionFactory create(DataSource dataSource, AdbaOptions options) {
+        return new AdbaConnectionFactory(dataSource, options);
     }
 
     /**
-     * Create a {@link Mono} from the {@link jdk.incubator.sql2.Operation ConnectOperation}.
+     * Create a {@link Mono} from the {@link jdk.incubator.sql2.Operation attach operation}. The {@link Mono} completes
+     * once the session is attached. The session is closed if attaching fails, times out, or is cancelled. The
+     * {@link AdbaOptions#getConnectTimeout() connect timeout} is enforced on the {@link Mono} regardless of whether the
+     * driver supports operation timeouts and fails with {@link AdbaTimeoutException}.
      *
-     * @return
-     * @see jdk.incubator.sql2.Session#connectOperation
+     * @return a {@link Mono} emitting the {@link AdbaConnection} once attached.
+     * @see jdk.incubator.sql2.Session#attachOperation
+     * @see AdbaOptions#withConnectTimeout(Duration)
      */
     @Override
     public Mono<AdbaConnection> create() {
@@ -61,12 +83,37 @@ class AdbaConnectionFactory implements ConnectionFactory {
         return Mono.defer(() -> {
 
             Session session = dataSource.builder().build();
-            session.attachOperation().submit();
+            Duration connectTimeout = options.getConnectTimeout();
+            AtomicBoolean attached = new AtomicBoolean();
+
+            Mono<AdbaConnection> connection = AdbaUtils.submitLater(session::attachOperation).then(Mono.fromSupplier(() -> {
+
+                attached.set(true);
+                return AdbaConnection.create(session, options);
+            }));
+
+            if (!connectTimeout.isZero()) {
+                connection = connection.timeout(connectTimeout);
+            }
+
+            return connection.doOnError(e -> closeQuietly(session)).doOnCancel(() -> {
 
-            return Mono.just(AdbaConnection.create(session));
+                if (!attached.get()) {
+                    closeQuietly(session);
+                }
+            });
         }).onErrorMap(AdbaUtils.exceptionMapper());
     }
 
+    private static void closeQuietly(Session session) {
+
+        try {
+            session.closeOperation().submit();
+        } catch (RuntimeException e) {
+            // ignore, the session is unusable anyway
+        }
+    }
+
     @Override
     public AdbaConnectionFactoryMetadata getMetadata() {
         return AdbaConnectionFactoryMetadata.INSTANCE;
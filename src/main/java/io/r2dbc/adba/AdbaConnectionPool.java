@@ -0,0 +1,496 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import jdk.incubator.sql2.Session;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Pooling {@link ConnectionFactory} that retains {@link AdbaConnection}s created by {@link AdbaConnectionFactory} for
+ * reuse. Connections are handed out as leases of the pooled {@link AdbaConnection}; {@link Connection#close() closing} a
+ * lease returns its session to the pool instead of closing it.
+ * <p>
+ * Acquisition is non-blocking: if no idle connection is available and the pool has reached its
+ * {@link AdbaPoolOptions#getMaxSize() maximum size}, the acquisition is queued and completed once a connection is
+ * released. Idle connections are {@link Session#validationOperation(Session.Validation) validated} before they are handed
+ * out; connections failing validation are discarded. Idle and lifetime limits are enforced whenever connections are
+ * acquired or released and periodically on {@link Schedulers#parallel()} at half the smaller of both limits (at least
+ * every second) so that an unused pool closes its idle connections as well. The
+ * {@link AdbaPoolOptions#getMinSize() minimum size} is established on first use and replenished on subsequent pool
+ * activity; each replenishment attempts to create at most the missing number of connections.
+ *
+ * @author Mark Paluch
+ * @see AdbaPoolOptions
+ */
+public final class AdbaConnectionPool implements ConnectionFactory {
+
+    private final AdbaConnectionFactory connectionFactory;
+
+    private final AdbaPoolOptions options;
+
+    private final LongSupplier nanoClock;
+
+    private final long maxIdleNanos;
+
+    private final long maxLifeNanos;
+
+    private final Deque<PooledSession> idle = new ConcurrentLinkedDeque<>();
+
+    private final Deque<Borrower> pending = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private final Disposable eviction;
+
+    private volatile boolean closed;
+
+    private AdbaConnectionPool(AdbaConnectionFactory connectionFactory, AdbaPoolOptions options, LongSupplier nanoClock) {
+        this.connectionFactory = connectionFactory;
+        this.options = options;
+        this.nanoClock = nanoClock;
+        this.maxIdleNanos = options.getMaxIdleTime().toNanos();
+        this.maxLifeNanos = options.getMaxLifeTime().toNanos();
+        this.eviction = scheduleEviction();
+    }
+
+    /**
+     * Creates a new {@link AdbaConnectionPool} given {@link AdbaConnectionFactory} and {@link AdbaPoolOptions}.
+     *
+     * @param connectionFactory must not be {@literal null}.
+     * @param options           must not be {@literal null}.
+     * @return the {@link AdbaConnectionPool} for {@link AdbaConnectionFactory}.
+     */
+    static AdbaConnectionPool create(AdbaConnectionFactory connectionFactory, AdbaPoolOptions options) {
+        return create(connectionFactory, options, System::nanoTime);
+    }
+
+    /**
+     * Creates a new {@link AdbaConnectionPool} given {@link AdbaConnectionFactory}, {@link AdbaPoolOptions}, and a clock
+     * to measure idle time and lifetime.
+     *
+     * @param connectionFactory must not be {@literal null}.
+     * @param options           must not be {@literal null}.
+     * @param nanoClock         must not be {@literal null}.
+     * @return the {@link AdbaConnectionPool} for {@link AdbaConnectionFactory}.
+     */
+    static AdbaConnectionPool create(AdbaConnectionFactory connectionFactory, AdbaPoolOptions options, LongSupplier nanoClock) {
+
+        Assert.notNull(connectionFactory, "AdbaConnectionFactory must not be null!");
+        Assert.notNull(options, "AdbaPoolOptions must not be null!");
+        Assert.notNull(nanoClock, "Clock must not be null!");
+        Assert.isTrue(options.getMinSize() <= options.getMaxSize(), "Minimum size must not exceed maximum size!");
+
+        return new AdbaConnectionPool(connectionFactory, options, nanoClock);
+    }
+
+    /**
+     * Acquire a {@link Connection} from the pool. Emits an idle connection, a newly created connection if the pool has
+     * capacity, or waits until a connection is released.
+     *
+     * @return a {@link Mono} emitting a pooled {@link AdbaConnection}.
+     */
+    @Override
+    public Mono<AdbaConnection> create() {
+
+        return Mono.create(sink -> {
+
+            if (this.closed) {
+                sink.error(new IllegalStateException("Connection pool is closed"));
+                return;
+            }
+
+            if (this.pendingCount.get() >= this.options.getMaxPendingAcquires() && this.idle.isEmpty()
+                    && this.allocated.get() >= this.options.getMaxSize()) {
+                sink.error(new IllegalStateException(String.format("Pending acquire queue has reached its maximum size of %d", this.options.getMaxPendingAcquires())));
+                return;
+            }
+
+            Borrower borrower = new Borrower(sink);
+            sink.onCancel(borrower::cancel);
+
+            this.pendingCount.incrementAndGet();
+            this.pending.offer(borrower);
+
+            drain();
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return this.connectionFactory.getMetadata();
+    }
+
+    /**
+     * Close this pool. Pending acquisitions are failed and idle connections are closed. Connections in use are closed
+     * when they are released.
+     *
+     * @return a {@link Mono} that completes once all idle connections are closed.
+     */
+    public Mono<Void> close() {
+
+        return Mono.defer(() -> {
+
+            this.closed = true;
+            this.eviction.dispose();
+
+            Borrower borrower;
+            while ((borrower = pollPending()) != null) {
+                borrower.error(new IllegalStateException("Connection pool is closed"));
+            }
+
+            List<Mono<Void>> closes = new ArrayList<>();
+
+            PooledSession session;
+            while ((session = this.idle.pollFirst()) != null) {
+                this.allocated.decrementAndGet();
+                closes.add(session.connection.close());
+            }
+
+            return Mono.when(closes);
+        });
+    }
+
+    /**
+     * @return the number of connections allocated by this pool, both idle and in use.
+     */
+    public int getAllocatedSize() {
+        return this.allocated.get();
+    }
+
+    /**
+     * @return the number of idle connections.
+     */
+    public int getIdleSize() {
+        return this.idle.size();
+    }
+
+    /**
+     * @return the number of acquisitions waiting for a connection.
+     */
+    public int getPendingAcquireSize() {
+        return this.pendingCount.get();
+    }
+
+    /**
+     * Return a {@link PooledSession} to the pool. Closes the session if the pool is closed or the session exceeded its
+     * lifetime.
+     *
+     * @param session the session to release.
+     */
+    void release(PooledSession session) {
+
+        if (this.closed || isLifetimeExceeded(session)) {
+            destroy(session);
+        } else {
+            session.idleSince = this.nanoClock.getAsLong();
+            this.idle.offerFirst(session);
+        }
+
+        drain();
+    }
+
+    /**
+     * Close idle connections that exceeded their idle time or lifetime and replenish the minimum size.
+     */
+    void evict() {
+        drain();
+    }
+
+    private Disposable scheduleEviction() {
+
+        long limit = Math.min(this.maxIdleNanos == 0 ? Long.MAX_VALUE : this.maxIdleNanos, this.maxLifeNanos == 0 ? Long.MAX_VALUE : this.maxLifeNanos);
+
+        if (limit == Long.MAX_VALUE) {
+            return Disposables.disposed();
+        }
+
+        long interval = Math.max(limit / 2, TimeUnit.SECONDS.toNanos(1));
+
+        return Schedulers.parallel().schedulePeriodically(this::evict, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    private void drain() {
+
+        if (this.wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+
+        for (; ; ) {
+
+            evictIdle();
+
+            while (!this.pending.isEmpty()) {
+
+                PooledSession session = this.idle.pollFirst();
+
+                if (session != null) {
+
+                    if (isEvictable(session)) {
+                        destroy(session);
+                        continue;
+                    }
+
+                    Borrower borrower = pollPending();
+                    if (borrower == null) {
+                        this.idle.offerFirst(session);
+                        break;
+                    }
+
+                    validateAndDeliver(borrower, session);
+                    continue;
+                }
+
+                if (!reserve()) {
+                    break;
+                }
+
+                Borrower borrower = pollPending();
+                if (borrower == null) {
+                    this.allocated.decrementAndGet();
+                    break;
+                }
+
+                allocate(borrower);
+            }
+
+            ensureMinSize();
+
+            missed = this.wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private void validateAndDeliver(Borrower borrower, PooledSession session) {
+
+        Session.Validation depth = this.options.getValidationDepth();
+
+        if (depth == Session.Validation.NONE) {
+            deliver(borrower, session);
+            return;
+        }
+
+        session.connection.validate(depth).subscribe(null, e -> {
+
+            destroy(session);
+
+            this.pendingCount.incrementAndGet();
+            this.pending.offerFirst(borrower);
+
+            drain();
+        }, () -> deliver(borrower, session));
+    }
+
+    private void allocate(Borrower borrower) {
+
+        this.connectionFactory.create().subscribe(connection -> {
+            deliver(borrower, new PooledSession(connection, this.nanoClock.getAsLong()));
+        }, e -> {
+
+            this.allocated.decrementAndGet();
+            borrower.error(e);
+
+            drain();
+        });
+    }
+
+    private void ensureMinSize() {
+
+        // bounded: a synchronously failing factory releases its reservation before the next attempt
+        int missing = this.options.getMinSize() - this.allocated.get();
+
+        for (int i = 0; i < missing && !this.closed && reserve(); i++) {
+
+            this.connectionFactory.create().subscribe(connection -> {
+                release(new PooledSession(connection, this.nanoClock.getAsLong()));
+            }, e -> this.allocated.decrementAndGet());
+        }
+    }
+
+    private void deliver(Borrower borrower, PooledSession session) {
+
+        if (!borrower.deliver(session)) {
+            release(session);
+        }
+    }
+
+    private void destroy(PooledSession session) {
+
+        this.allocated.decrementAndGet();
+        session.connection.close().onErrorResume(e -> Mono.empty()).subscribe();
+    }
+
+    private void evictIdle() {
+
+        if (this.maxIdleNanos == 0 && this.maxLifeNanos == 0) {
+            return;
+        }
+
+        // least recently used sessions are at the tail
+        Iterator<PooledSession> iterator = this.idle.descendingIterator();
+        while (iterator.hasNext()) {
+
+            PooledSession session = iterator.next();
+
+            if (isEvictable(session) && this.idle.removeFirstOccurrence(session)) {
+                destroy(session);
+            }
+        }
+    }
+
+    private boolean isEvictable(PooledSession session) {
+        return isLifetimeExceeded(session) || (isIdleTimeExceeded(session) && this.allocated.get() > this.options.getMinSize());
+    }
+
+    private boolean isLifetimeExceeded(PooledSession session) {
+        return this.maxLifeNanos != 0 && this.nanoClock.getAsLong() - session.createdAt > this.maxLifeNanos;
+    }
+
+    private boolean isIdleTimeExceeded(PooledSession session) {
+        return this.maxIdleNanos != 0 && this.nanoClock.getAsLong() - session.idleSince > this.maxIdleNanos;
+    }
+
+    private boolean reserve() {
+
+        for (; ; ) {
+
+            int current = this.allocated.get();
+
+            if (current >= this.options.getMaxSize()) {
+                return false;
+            }
+
+            if (this.allocated.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Nullable
+    private Borrower pollPending() {
+
+        Borrower borrower;
+        while ((borrower = this.pending.poll()) != null) {
+
+            this.pendingCount.decrementAndGet();
+
+            if (!borrower.isCancelled()) {
+                return borrower;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * A pooled {@link AdbaConnection} along with its creation and idle timestamps.
+     */
+    static class PooledSession {
+
+        final AdbaConnection connection;
+
+        final long createdAt;
+
+        volatile long idleSince;
+
+        PooledSession(AdbaConnection connection, long createdAt) {
+            this.connection = connection;
+            this.createdAt = createdAt;
+            this.idleSince = createdAt;
+        }
+    }
+
+    /**
+     * Acquisition waiting for a connection. A {@link Borrower} is either completed with a connection, failed, or
+     * cancelled exactly once.
+     */
+    class Borrower {
+
+        private static final int WAITING = 0;
+
+        private static final int DONE = 1;
+
+        private static final int CANCELLED = 2;
+
+        private final MonoSink<AdbaConnection> sink;
+
+        private final AtomicInteger state = new AtomicInteger();
+
+        Borrower(MonoSink<AdbaConnection> sink) {
+            this.sink = sink;
+        }
+
+        boolean deliver(PooledSession session) {
+
+            if (this.state.compareAndSet(WAITING, DONE)) {
+                AtomicBoolean released = new AtomicBoolean();
+
+                this.sink.success(session.connection.lease(() -> Mono.fromRunnable(() -> {
+
+                    if (released.compareAndSet(false, true)) {
+                        release(session);
+                    }
+                })));
+                return true;
+            }
+
+            return false;
+        }
+
+        void error(Throwable throwable) {
+
+            if (this.state.compareAndSet(WAITING, DONE)) {
+                this.sink.error(throwable);
+            }
+        }
+
+        void cancel() {
+
+            if (this.state.compareAndSet(WAITING, CANCELLED) && AdbaConnectionPool.this.pending.remove(this)) {
+                AdbaConnectionPool.this.pendingCount.decrementAndGet();
+            }
+        }
+
+        boolean isCancelled() {
+            return this.state.get() == CANCELLED;
+        }
+    }
+}
@@ -24,7 +24,7 @@ import reactor.util.annotation.Nullable;
  *
  * @author Mark Paluch
  */
-public final class AdbaException extends R2dbcException {
+public class AdbaException extends R2dbcException {
 
     private @Nullable
     final String sqlString;
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.SqlType;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Value object holding connection-factory-wide defaults for the ADBA adapter. {@link AdbaOptions} is immutable; each
+ * {@code with…} method returns a new instance.
+ *
+ * <pre class="code">
+ * AdbaOptions options = AdbaOptions.create().withFetchSize(100);
+ * ConnectionFactory connectionFactory = AdbaAdapter.fromDataSource(dataSource, options);
+ * </pre>
+ *
+ * @author Mark Paluch
+ */
+public final class AdbaOptions {
+
+    private static final AdbaOptions DEFAULT = new AdbaOptions(0, false, Collections.emptyMap(), SqlTypeResolver.create(), 256, Duration.ZERO, 0, Duration.ZERO,
+            GeneratedValuesRewriter.returningClause(), Codecs.create(), null);
+
+    private final long fetchSize;
+
+    private final boolean fetchSizeFromDemand;
+
+    private final Map<Class<?>, SqlType> typeMappings;
+
+    private final SqlTypeResolver typeResolver;
+
+    private final int statementCacheSize;
+
+    private final Duration connectTimeout;
+
+    private final int pipelineDepth;
+
+    private final Duration statementTimeout;
+
+    private final GeneratedValuesRewriter generatedValuesRewriter;
+
+    private final Codecs codecs;
+
+    private final @Nullable
+    LobFactory lobFactory;
+
+    private AdbaOptions(long fetchSize, boolean fetchSizeFromDemand, Map<Class<?>, SqlType> typeMappings,
+                        SqlTypeResolver typeResolver, int statementCacheSize, Duration connectTimeout, int pipelineDepth,
+                        Duration statementTimeout, GeneratedValuesRewriter generatedValuesRewriter, Codecs codecs,
+                        @Nullable LobFactory lobFactory) {
+        this.fetchSize = fetchSize;
+        this.fetchSizeFromDemand = fetchSizeFromDemand;
+        this.typeMappings = typeMappings;
+        this.typeResolver = typeResolver;
+        this.statementCacheSize = statementCacheSize;
+        this.connectTimeout = connectTimeout;
+        this.pipelineDepth = pipelineDepth;
+        this.statementTimeout = statementTimeout;
+        this.generatedValuesRewriter = generatedValuesRewriter;
+        this.codecs = codecs;
+        this.lobFactory = lobFactory;
+    }
+
+    /**
+     * Create {@link AdbaOptions} using driver defaults.
+     *
+     * @return the default {@link AdbaOptions}.
+     */
+    public static AdbaOptions create() {
+        return DEFAULT;
+    }
+
+    /**
+     * Configure the default number of rows to fetch per round trip when consuming rows. {@literal 0} uses the driver
+     * default.
+     *
+     * @param fetchSize number of rows, must be greater or equal to zero.
+     * @return new {@link AdbaOptions} with the fetch size applied.
+     * @see AdbaStatement#fetchSize(long)
+     */
+    public AdbaOptions withFetchSize(long fetchSize) {
+
+        Assert.isTrue(fetchSize >= 0, "Fetch size must be greater or equal to zero!");
+
+        return new AdbaOptions(fetchSize, this.fetchSizeFromDemand, this.typeMappings, this.typeResolver, this.statementCacheSize, this.connectTimeout, this.pipelineDepth, this.statementTimeout, this.generatedValuesRewriter, this.codecs, this.lobFactory);
+    }
+
+    /**
+     * Configure whether to derive the fetch size from the first bounded {@link org.reactivestreams.Subscription#request(long)
+     * demand} of a row consumer. A fetch size configured on the statement takes precedence. Unbounded demand falls back to
+     * the {@link #withFetchSize(long) default fetch size}.
+     *
+     * @param fetchSizeFromDemand {@literal true} to derive the fetch size from demand.
+     * @return new {@link AdbaOptions} with the setting applied.
+     */
+    public AdbaOptions withFetchSizeFromDemand(boolean fetchSizeFromDemand) {
+        return new AdbaOptions(this.fetchSize, fetchSizeFromDemand, this.typeMappings, this.typeResolver, this.statementCacheSize, this.connectTimeout, this.pipelineDepth, this.statementTimeout, this.generatedValuesRewriter, this.codecs, this.lobFactory);
+    }
+
+    /**
+     * Register a {@link SqlType} for parameter values of {@code javaType}. The mapping applies to {@code javaType} and its
+     * subtypes and takes precedence over the default mappings derived from {@link jdk.incubator.sql2.AdbaType}.
+     *
+     * @param javaType must not be {@literal null}.
+     * @param sqlType  must not be {@literal null}.
+     * @return new {@link AdbaOptions} with the type mapping applied.
+     */
+    public AdbaOptions withTypeMapping(Class<?> javaType, SqlType sqlType) {
+
+        Assert.notNull(javaType, "Java type must not be null!");
+        Assert.notNull(sqlType, "SqlType must not be null!");
+
+        Map<Class<?>, SqlType> typeMappings = new LinkedHashMap<>(this.typeMappings);
+        typeMappings.put(javaType, sqlType);
+
+        return new AdbaOptions(this.fetchSize, this.fetchSizeFromDemand, Collections.unmodifiableMap(typeMappings),
+                SqlTypeResolver.create(typeMappings), this.statementCacheSize, this.connectTimeout, this.pipelineDepth, this.statementTimeout, this.generatedValuesRewriter, this.codecs, this.lobFactory);
+    }
+
+    /**
+     * Configure the maximum number of {@link StatementTemplate statement templates} cached per connection. Templates are
+     * keyed by SQL text and evicted in least-recently-used order. {@literal 0} disables the cache.
+     *
+     * @param statementCacheSize maximum number of cached templates, must be greater or equal to zero.
+     * @return new {@link AdbaOptions} with the statement cache size applied.
+     */
+    public AdbaOptions withStatementCacheSize(int statementCacheSize) {
+
+        Assert.isTrue(statementCacheSize >= 0, "Statement cache size must be greater or equal to zero!");
+
+        return new AdbaOptions(this.fetchSize, this.fetchSizeFromDemand, this.typeMappings, this.typeResolver, statementCacheSize, this.connectTimeout, this.pipelineDepth, this.statementTimeout, this.generatedValuesRewriter, this.codecs, this.lobFactory);
+    }
+
+    /**
+     * Configure the maximum time to wait for a session to attach when creating a connection. Exceeding it fails with
+     * {@link AdbaTimeoutException}. {@link Duration#ZERO} waits indefinitely.
+     *
+     * @param connectTimeout must not be {@literal null} or negative.
+     * @return new {@link AdbaOptions} with the connect timeout applied.
+     */
+    public AdbaOptions withConnectTimeout(Duration connectTimeout) {
+
+        Assert.notNull(connectTimeout, "Connect timeout must not be null!");
+        Assert.isTrue(!connectTimeout.isNegative(), "Connect timeout must not be negative!");
+
+        return new AdbaOptions(this.fetchSize, this.fetchSizeFromDemand, this.typeMappings, this.typeResolver, this.statementCacheSize, connectTimeout, this.pipelineDepth, this.statementTimeout, this.generatedValuesRewriter, this.codecs, this.lobFactory);
+    }
+
+    /**
+     * Configure the maximum number of operations submitted to a session without waiting for their completion. Statements
+     * executed on the same connection are submitted back to back in subscription order; further statements are queued
+     * once the depth is reached. {@literal 0} submits statements without limit.
+     * <p>
+     * Operations streaming rows through {@link io.r2dbc.spi.Result#map(java.util.function.BiFunction)} complete only
+     * as rows are consumed and therefore release their slot once submitted so that statements issued while consuming
+     * rows do not deadlock. Operation groups, used for {@link AdbaStatement#andCommit()} and
+     * {@link AdbaConnection#executeIndependently(java.util.Collection, java.util.function.Function)}, occupy a slot
+     * until their results are consumed so statements awaited while consuming their rows require another free slot.
+     *
+     * @param pipelineDepth maximum number of operations in flight, must be greater or equal to zero.
+     * @return new {@link AdbaOptions} with the pipeline depth applied.
+     */
+    public AdbaOptions withPipelineDepth(int pipelineDepth) {
+
+        Assert.isTrue(pipelineDepth >= 0, "Pipeline depth must be greater or equal to zero!");
+
+        return new AdbaOptions(this.fetchSize, this.fetchSizeFromDemand, this.typeMappings, this.typeResolver, this.statementCacheSize, this.connectTimeout, pipelineDepth, this.statementTimeout, this.generatedValuesRewriter, this.codecs, this.lobFactory);
+    }
+
+    /**
+     * Configure the default timeout for operations of statements and batches. The timeout is applied through
+     * {@link jdk.incubator.sql2.Operation#timeout(java.time.Duration)} so that the driver aborts operations that do not
+     * complete in time. Timed out operations fail with {@link AdbaTimeoutException}. {@link Duration#ZERO} does not
+     * apply a timeout.
+     *
+     * @param statementTimeout must not be {@literal null} or negative.
+     * @return new {@link AdbaOptions} with the statement timeout applied.
+     * @see AdbaStatement#timeout(Duration)
+     */
+    public AdbaOptions withStatementTimeout(Duration statementTimeout) {
+
+        Assert.notNull(statementTimeout, "Statement timeout must not be null!");
+        Assert.isTrue(!statementTimeout.isNegative(), "Statement timeout must not be negative!");
+
+        return new AdbaOptions(this.fetchSize, this.fetchSizeFromDemand, this.typeMappings, this.typeResolver, this.statementCacheSize, this.connectTimeout, this.pipelineDepth, statementTimeout, this.generatedValuesRewriter, this.codecs, this.lobFactory);
+    }
+
+    /**
+     * Configure the {@link GeneratedValuesRewriter} to rewrite SQL of statements that
+     * {@link AdbaStatement#returnGeneratedValues(String...) return generated values}. Defaults to
+     * {@link GeneratedValuesRewriter#returningClause() appending a RETURNING clause}.
+     *
+     * @param generatedValuesRewriter must not be {@literal null}.
+     * @return new {@link AdbaOptions} with the rewriter applied.
+     */
+    public AdbaOptions withGeneratedValuesRewriter(GeneratedValuesRewriter generatedValuesRewriter) {
+
+        Assert.notNull(generatedValuesRewriter, "GeneratedValuesRewriter must not be null!");
+
+        return new AdbaOptions(this.fetchSize, this.fetchSizeFromDemand, this.typeMappings, this.typeResolver, this.statementCacheSize, this.connectTimeout, this.pipelineDepth, this.statementTimeout, generatedValuesRewriter, this.codecs, this.lobFactory);
+    }
+
+    /**
+     * Register a {@link Codec} to select {@link ColumnDecoder column decoders} when reading rows. Codecs are consulted in
+     * reverse registration order before the built-in codecs; the selected decoder is cached per column and requested
+     * type of a result.
+     *
+     * @param codec must not be {@literal null}.
+     * @return new {@link AdbaOptions} with the codec registered.
+     */
+    public AdbaOptions withCodec(Codec codec) {
+
+        Assert.notNull(codec, "Codec must not be null!");
+
+        return new AdbaOptions(this.fetchSize, this.fetchSizeFromDemand, this.typeMappings, this.typeResolver, this.statementCacheSize, this.connectTimeout, this.pipelineDepth, this.statementTimeout, this.generatedValuesRewriter, this.codecs.withCodec(codec), this.lobFactory);
+    }
+
+    /**
+     * Configure the {@link LobFactory} to create the large objects that {@link org.reactivestreams.Publisher streamed
+     * parameter values} are written into. Large object creation is dialect-specific so there is no default: binding a
+     * streamed parameter value fails unless a {@link LobFactory} is configured. Each streamed parameter value costs an
+     * additional round trip to create its large object before the statement is executed.
+     *
+     * @param lobFactory must not be {@literal null}.
+     * @return new {@link AdbaOptions} with the {@link LobFactory} applied.
+     */
+    public AdbaOptions withLobFactory(LobFactory lobFactory) {
+
+        Assert.notNull(lobFactory, "LobFactory must not be null!");
+
+        return new AdbaOptions(this.fetchSize, this.fetchSizeFromDemand, this.typeMappings, this.typeResolver, this.statementCacheSize, this.connectTimeout, this.pipelineDepth, this.statementTimeout, this.generatedValuesRewriter, this.codecs, lobFactory);
+    }
+
+    /**
+     * @return the default fetch size. {@literal 0} to use the driver default.
+     */
+    public long getFetchSize() {
+        return this.fetchSize;
+    }
+
+    /**
+     * @return {@literal true} if the fetch size is derived from the first bounded demand.
+     */
+    public boolean isFetchSizeFromDemand() {
+        return this.fetchSizeFromDemand;
+    }
+
+    /**
+     * @return the registered type mappings.
+     */
+    public Map<Class<?>, SqlType> getTypeMappings() {
+        return this.typeMappings;
+    }
+
+    /**
+     * @return the maximum number of statement templates cached per connection. {@literal 0} if caching is disabled.
+     */
+    public int getStatementCacheSize() {
+        return this.statementCacheSize;
+    }
+
+    /**
+     * @return the connect timeout. {@link Duration#ZERO} if unlimited.
+     */
+    public Duration getConnectTimeout() {
+        return this.connectTimeout;
+    }
+
+    /**
+     * @return the maximum number of operations in flight per connection. {@literal 0} if unlimited.
+     */
+    public int getPipelineDepth() {
+        return this.pipelineDepth;
+    }
+
+    /**
+     * @return the default statement timeout. {@link Duration#ZERO} if unlimited.
+     */
+    public Duration getStatementTimeout() {
+        return this.statementTimeout;
+    }
+
+    /**
+     * @return the {@link GeneratedValuesRewriter} for statements returning generated values.
+     */
+    public GeneratedValuesRewriter getGeneratedValuesRewriter() {
+        return this.generatedValuesRewriter;
+    }
+
+    /**
+     * @return the {@link LobFactory} to create large objects for streamed parameter values. {@literal null} if not
+     * configured.
+     */
+    @Nullable
+    public LobFactory getLobFactory() {
+        return this.lobFactory;
+    }
+
+    SqlTypeResolver getTypeResolver() {
+        return this.typeResolver;
+    }
+
+    Codecs getCodecs() {
+        return this.codecs;
+    }
+
+    @Override
+    public String toString() {
+        return "AdbaOptions{" + "fetchSize=" + this.fetchSize + ", fetchSizeFromDemand=" + this.fetchSizeFromDemand + ", typeMappings=" + this.typeMappings + ", statementCacheSize=" + this.statementCacheSize + ", connectTimeout=" + this.connectTimeout + ", pipelineDepth=" + this.pipelineDepth + ", statementTimeout=" + this.statementTimeout + ", generatedValuesRewriter=" + this.generatedValuesRewriter + ", codecs=" + this.codecs + ", lobFactory=" + this.lobFactory + '}';
+    }
+}
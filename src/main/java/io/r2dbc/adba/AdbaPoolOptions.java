@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.Session;
+
+import java.time.Duration;
+
+/**
+ * Value object holding configuration for {@link AdbaConnectionPool}. {@link AdbaPoolOptions} is immutable; each
+ * {@code with…} method returns a new instance.
+ *
+ * <pre class="code">
+ * AdbaPoolOptions poolOptions = AdbaPoolOptions.create().withMaxSize(20).withMaxIdleTime(Duration.ofMinutes(5));
+ * AdbaConnectionPool pool = AdbaAdapter.pooledFromDataSource(dataSource, poolOptions);
+ * </pre>
+ *
+ * @author Mark Paluch
+ */
+public final class AdbaPoolOptions {
+
+    private static final AdbaPoolOptions DEFAULT = new AdbaPoolOptions(0, 10, Duration.ofMinutes(30), Duration.ZERO,
+            Session.Validation.LOCAL, Integer.MAX_VALUE);
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final Duration maxIdleTime;
+
+    private final Duration maxLifeTime;
+
+    private final Session.Validation validationDepth;
+
+    private final int maxPendingAcquires;
+
+    private AdbaPoolOptions(int minSize, int maxSize, Duration maxIdleTime, Duration maxLifeTime,
+                            Session.Validation validationDepth, int maxPendingAcquires) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.maxIdleTime = maxIdleTime;
+        this.maxLifeTime = maxLifeTime;
+        this.validationDepth = validationDepth;
+        this.maxPendingAcquires = maxPendingAcquires;
+    }
+
+    /**
+     * Create {@link AdbaPoolOptions} using defaults: up to 10 connections, 30 minutes idle time, no maximum lifetime and
+     * {@link Session.Validation#LOCAL local} validation on acquire.
+     *
+     * @return the default {@link AdbaPoolOptions}.
+     */
+    public static AdbaPoolOptions create() {
+        return DEFAULT;
+    }
+
+    /**
+     * Configure the number of connections the pool retains even when idle.
+     *
+     * @param minSize minimum number of connections, must be greater or equal to zero.
+     * @return new {@link AdbaPoolOptions} with the minimum size applied.
+     */
+    public AdbaPoolOptions withMinSize(int minSize) {
+
+        Assert.isTrue(minSize >= 0, "Minimum size must be greater or equal to zero!");
+
+        return new AdbaPoolOptions(minSize, this.maxSize, this.maxIdleTime, this.maxLifeTime, this.validationDepth,
+                this.maxPendingAcquires);
+    }
+
+    /**
+     * Configure the maximum number of connections the pool allocates.
+     *
+     * @param maxSize maximum number of connections, must be greater than zero.
+     * @return new {@link AdbaPoolOptions} with the maximum size applied.
+     */
+    public AdbaPoolOptions withMaxSize(int maxSize) {
+
+        Assert.isTrue(maxSize > 0, "Maximum size must be greater than zero!");
+
+        return new AdbaPoolOptions(this.minSize, maxSize, this.maxIdleTime, this.maxLifeTime, this.validationDepth,
+                this.maxPendingAcquires);
+    }
+
+    /**
+     * Configure the time after which an idle connection is closed. Connections are not closed below the
+     * {@link #withMinSize(int) minimum size}. {@link Duration#ZERO} keeps idle connections open.
+     *
+     * @param maxIdleTime must not be {@literal null} or negative.
+     * @return new {@link AdbaPoolOptions} with the maximum idle time applied.
+     */
+    public AdbaPoolOptions withMaxIdleTime(Duration maxIdleTime) {
+
+        Assert.notNull(maxIdleTime, "Max idle time must not be null!");
+        Assert.isTrue(!maxIdleTime.isNegative(), "Max idle time must not be negative!");
+
+        return new AdbaPoolOptions(this.minSize, this.maxSize, maxIdleTime, this.maxLifeTime, this.validationDepth,
+                this.maxPendingAcquires);
+    }
+
+    /**
+     * Configure the time after which a connection is closed once it is returned to the pool. {@link Duration#ZERO}
+     * removes the lifetime limit.
+     *
+     * @param maxLifeTime must not be {@literal null} or negative.
+     * @return new {@link AdbaPoolOptions} with the maximum lifetime applied.
+     */
+    public AdbaPoolOptions withMaxLifeTime(Duration maxLifeTime) {
+
+        Assert.notNull(maxLifeTime, "Max lifetime must not be null!");
+        Assert.isTrue(!maxLifeTime.isNegative(), "Max lifetime must not be negative!");
+
+        return new AdbaPoolOptions(this.minSize, this.maxSize, this.maxIdleTime, maxLifeTime, this.validationDepth,
+                this.maxPendingAcquires);
+    }
+
+    /**
+     * Configure the depth of {@link Session#validationOperation(Session.Validation) validation} applied to idle
+     * connections before handing them out. {@link Session.Validation#NONE} disables validation.
+     *
+     * @param validationDepth must not be {@literal null}.
+     * @return new {@link AdbaPoolOptions} with the validation depth applied.
+     */
+    public AdbaPoolOptions withValidationDepth(Session.Validation validationDepth) {
+
+        Assert.notNull(validationDepth, "Validation depth must not be null!");
+
+        return new AdbaPoolOptions(this.minSize, this.maxSize, this.maxIdleTime, this.maxLifeTime, validationDepth,
+                this.maxPendingAcquires);
+    }
+
+    /**
+     * Configure the maximum number of acquisitions waiting for a connection. Further acquisitions fail immediately.
+     *
+     * @param maxPendingAcquires maximum number of waiting acquisitions, must be greater or equal to zero.
+     * @return new {@link AdbaPoolOptions} with the maximum number of pending acquisitions applied.
+     */
+    public AdbaPoolOptions withMaxPendingAcquires(int maxPendingAcquires) {
+
+        Assert.isTrue(maxPendingAcquires >= 0, "Max pending acquires must be greater or equal to zero!");
+
+        return new AdbaPoolOptions(this.minSize, this.maxSize, this.maxIdleTime, this.maxLifeTime, this.validationDepth,
+                maxPendingAcquires);
+    }
+
+    /**
+     * @return the minimum number of retained connections.
+     */
+    public int getMinSize() {
+        return this.minSize;
+    }
+
+    /**
+     * @return the maximum number of connections.
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * @return the maximum idle time. {@link Duration#ZERO} if idle connections are kept open.
+     */
+    public Duration getMaxIdleTime() {
+        return this.maxIdleTime;
+    }
+
+    /**
+     * @return the maximum connection lifetime. {@link Duration#ZERO} if unlimited.
+     */
+    public Duration getMaxLifeTime() {
+        return this.maxLifeTime;
+    }
+
+    /**
+     * @return the validation depth applied to idle connections on acquire.
+     */
+    public Session.Validation getValidationDepth() {
+        return this.validationDepth;
+    }
+
+    /**
+     * @return the maximum number of waiting acquisitions.
+     */
+    public int getMaxPendingAcquires() {
+        return this.maxPendingAcquires;
+    }
+
+    @Override
+    public String toString() {
+        return "AdbaPoolOptions{" + "minSize=" + this.minSize + ", maxSize=" + this.maxSize + ", maxIdleTime=" + this.maxIdleTime + ", maxLifeTime=" + this.maxLifeTime + ", validationDepth=" + this.validationDepth + ", maxPendingAcquires=" + this.maxPendingAcquires + '}';
+    }
+}
@@ -16,107 +16,93 @@
 package io.r2dbc.adba;
 
 import io.r2dbc.spi.Row;
-import io.r2dbc.spi.RowMetadata;
 import jdk.incubator.sql2.Result;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.util.annotation.Nullable;
 
-import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 /**
- * ADBA-specific {@link Row} and {@link RowMetadata} implementation. {@link RowMetadata} is computed lazily when a metadata method is accessed.
+ * ADBA-specific {@link Row} implementation. Rows of the same result share a single {@link AdbaRowMetadata} instance
+ * that resolves column names to positions.
+ * <p>
+ * Large objects can be streamed by requesting {@link Publisher} (or {@link Flux}) as target type. BLOB columns are
+ * streamed as {@code Publisher<ByteBuffer>} and CLOB columns as {@code Publisher<CharSequence>} in chunks, bounded by
+ * downstream demand, instead of materializing the whole value.
+ * <p>
+ * Values are decoded through the {@link ColumnDecoder} that the shared {@link AdbaRowMetadata} selected for the column
+ * and requested type.
  *
  * @author Mark Paluch
  */
-class AdbaRow implements Row, RowMetadata {
+class AdbaRow implements Row {
 
     private final jdk.incubator.sql2.Result.RowColumn delegate;
-    private @Nullable
-    Map<Integer, AdbaColumnMetadata> metadataMap;
+
+    private final AdbaRowMetadata metadata;
 
     /**
      * Creates a new {@link AdbaRow} for {@link jdk.incubator.sql2.Result.RowColumn}.
      *
      * @param delegate must not be {@literal null}.
+     * @param metadata must not be {@literal null}.
      */
-    private AdbaRow(Result.RowColumn delegate) {
+    private AdbaRow(Result.RowColumn delegate, AdbaRowMetadata metadata) {
         this.delegate = delegate;
+        this.metadata = metadata;
     }
 
     /**
      * Creates a new {@link AdbaRow} for {@link jdk.incubator.sql2.Result.RowColumn}.
      *
      * @param delegate must not be {@literal null}.
+     * @param metadata the shared {@link AdbaRowMetadata} of the result, must not be {@literal null}.
      * @return the {@link AdbaRow} for {@link jdk.incubator.sql2.Result.RowColumn}.
      */
-    static AdbaRow create(jdk.incubator.sql2.Result.RowColumn delegate) {
+    static AdbaRow create(jdk.incubator.sql2.Result.RowColumn delegate, AdbaRowMetadata metadata) {
 
         Assert.notNull(delegate, "RowColumn must not be null!");
+        Assert.notNull(metadata, "AdbaRowMetadata must not be null!");
 
-        return new AdbaRow(delegate);
+        return new AdbaRow(delegate, metadata);
     }
 
     @Override
     public <T> T get(Object identifier, Class<T> type) {
-        return doGet(getColumn(identifier), type);
-    }
-
-    @Override
-    public AdbaColumnMetadata getColumnMetadata(Object identifier) {
-
-        Assert.notNull(identifier, "Identifier must not be null!");
-
-        if (identifier instanceof Integer) {
-            return getMetadata().get(identifier);
-        }
-
-        return getColumnMetadatas().stream().filter(it -> identifier.equals(it.getName())).findFirst().orElse(null);
-    }
-
-    @Override
-    public Collection<AdbaColumnMetadata> getColumnMetadatas() {
-        return getMetadata().values();
-    }
 
-    private Map<Integer, AdbaColumnMetadata> getMetadata() {
+        int index = identifier instanceof Integer ? (Integer) identifier : this.metadata.getColumnIndex((String) identifier);
+        Result.Column column = getColumn(identifier, index);
 
-        if (metadataMap == null) {
-            metadataMap = createMetadataMap();
-        }
-        return metadataMap;
+        return decode(this.metadata.getDecoder(index, type != null ? type : Object.class, column), column);
     }
 
-    private Map<Integer, AdbaColumnMetadata> createMetadataMap() {
-
-        delegate.at(1);
-
-        Map<Integer, AdbaColumnMetadata> metadataMap = new LinkedHashMap<>();
-
-        for (Result.Column column : delegate) {
-            metadataMap.put(column.absoluteIndex(), SimpleAdbaColumnMetadata.from(column));
-        }
+    /**
+     * Decode the value of the column at {@code index} through the cached {@link ColumnDecoder}.
+     *
+     * @param index the 1-based column position.
+     * @param type  the requested type, must not be {@literal null}.
+     * @return the decoded value. Can be {@literal null}.
+     */
+    @Nullable
+    Object decode(int index, Class<?> type) {
 
+        Result.Column column = this.delegate.at(index);
 
-        return metadataMap;
+        return this.metadata.getDecoder(index, type, column).decode(column);
     }
 
-    private Result.Column getColumn(Object identifier) {
+    private Result.Column getColumn(Object identifier, int index) {
 
-        if (identifier instanceof Integer) {
+        if (index == -1 && identifier instanceof String) {
 
-            return delegate.at((Integer) identifier);
+            // let the driver report unknown columns
+            return this.delegate.at((String) identifier);
         }
 
-        return delegate.at((String) identifier);
+        return this.delegate.at(index);
     }
 
-    private static <T> T doGet(Result.Column column, @Nullable Class<T> type) {
-
-        if (type != null && !type.equals(Object.class)) {
-            return column.get(type);
-        }
-
-        return column.get();
+    @SuppressWarnings("unchecked")
+    private static <T> T decode(ColumnDecoder<?> decoder, Result.Column column) {
+        return (T) decoder.decode(column);
     }
 }
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.spi.RowMetadata;
+import jdk.incubator.sql2.Result;
+import jdk.incubator.sql2.SqlType;
+import reactor.util.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable ADBA-specific {@link RowMetadata} implementation. {@link AdbaRowMetadata} is computed once from the first
+ * row of a result and shared across all rows of that result.
+ * <p>
+ * Column names are indexed once into hash lookups: an exact index and a case-insensitive index following SQL identifier
+ * rules (unquoted identifiers are case-insensitive, double-quoted identifiers match exactly).
+ * <p>
+ * {@link AdbaRowMetadata} also caches the {@link ColumnDecoder} selected through {@link Codecs} for each column and
+ * requested type so that rows dispatch straight to the decoder. Cached decoders are keyed by the requested type and the
+ * {@link SqlType} reported by the column. Each column keeps one decoder per requested type so that alternating between
+ * requested types does not select decoders over and over.
+ *
+ * @author Mark Paluch
+ */
+class AdbaRowMetadata implements RowMetadata {
+
+    private final Map<Integer, AdbaColumnMetadata> metadataMap;
+
+    private final Map<String, Integer> nameIndex;
+
+    private final Map<String, Integer> foldedNameIndex;
+
+    private final Codecs codecs;
+
+    private final SqlType[] sqlTypes;
+
+    private final DecoderEntry[][] decoders;
+
+    private final Map<Class<?>, RowMapper<?>> rowMappers = new ConcurrentHashMap<>();
+
+    private AdbaRowMetadata(Map<Integer, AdbaColumnMetadata> metadataMap, SqlType[] sqlTypes, Codecs codecs) {
+
+        this.metadataMap = Collections.unmodifiableMap(metadataMap);
+        this.sqlTypes = sqlTypes;
+        this.codecs = codecs;
+        this.decoders = new DecoderEntry[metadataMap.size() + 1][];
+        this.nameIndex = new HashMap<>(metadataMap.size() * 2);
+        this.foldedNameIndex = new HashMap<>(metadataMap.size() * 2);
+
+        metadataMap.forEach((index, column) -> {
+
+            // columns without identifier (e.g. unaliased expressions) are accessible by index only
+            if (column.getName() == null) {
+                return;
+            }
+
+            // first column wins for duplicate names, matching a sequential scan
+            this.nameIndex.putIfAbsent(column.getName(), index);
+            this.foldedNameIndex.putIfAbsent(fold(column.getName()), index);
+        });
+    }
+
+    /**
+     * Creates {@link AdbaRowMetadata} from the columns of {@link jdk.incubator.sql2.Result.RowColumn}. Columns are
+     * indexed by their 1-based position.
+     *
+     * @param rowColumn must not be {@literal null}.
+     * @return the {@link AdbaRowMetadata} for {@link jdk.incubator.sql2.Result.RowColumn}.
+     */
+    static AdbaRowMetadata create(Result.RowColumn rowColumn) {
+        return create(rowColumn, Codecs.create());
+    }
+
+    /**
+     * Creates {@link AdbaRowMetadata} from the columns of {@link jdk.incubator.sql2.Result.RowColumn} selecting column
+     * decoders through {@link Codecs}. Columns are indexed by their 1-based position.
+     *
+     * @param rowColumn must not be {@literal null}.
+     * @param codecs    must not be {@literal null}.
+     * @return the {@link AdbaRowMetadata} for {@link jdk.incubator.sql2.Result.RowColumn}.
+     */
+    static AdbaRowMetadata create(Result.RowColumn rowColumn, Codecs codecs) {
+
+        Assert.notNull(rowColumn, "RowColumn must not be null!");
+        Assert.notNull(codecs, "Codecs must not be null!");
+
+        int columnCount = getColumnCount(rowColumn);
+
+        Map<Integer, AdbaColumnMetadata> metadataMap = new LinkedHashMap<>(columnCount * 2);
+        SqlType[] sqlTypes = new SqlType[columnCount + 1];
+
+        for (int index = 1; index <= columnCount; index++) {
+
+            Result.Column column = rowColumn.at(index);
+
+            metadataMap.put(index, SimpleAdbaColumnMetadata.from(column, index));
+            sqlTypes[index] = column.sqlType();
+        }
+
+        return new AdbaRowMetadata(metadataMap, sqlTypes, codecs);
+    }
+
+    /**
+     * Check whether this {@link AdbaRowMetadata} describes the columns of {@code rowColumn} by comparing the column count,
+     * column names and {@link SqlType}s and whether it selects decoders through {@code codecs}.
+     *
+     * @param rowColumn must not be {@literal null}.
+     * @param codecs    must not be {@literal null}.
+     * @return {@literal true} if this {@link AdbaRowMetadata} can be used for {@code rowColumn}.
+     */
+    boolean matches(Result.RowColumn rowColumn, Codecs codecs) {
+        return this.codecs == codecs && matches(rowColumn);
+    }
+
+    /**
+     * Check whether this {@link AdbaRowMetadata} describes the columns of {@code rowColumn} by comparing the column count,
+     * column names and {@link SqlType}s.
+     *
+     * @param rowColumn must not be {@literal null}.
+     * @return {@literal true} if this {@link AdbaRowMetadata} can be used for {@code rowColumn}.
+     */
+    boolean matches(Result.RowColumn rowColumn) {
+
+        int columnCount = getColumnCount(rowColumn);
+
+        if (columnCount != this.metadataMap.size()) {
+            return false;
+        }
+
+        for (int index = 1; index <= columnCount; index++) {
+
+            Result.Column column = rowColumn.at(index);
+
+            if (!Objects.equals(this.metadataMap.get(index).getName(), column.identifier())
+                    || !Objects.equals(this.sqlTypes[index], column.sqlType())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Determine the number of columns of {@code rowColumn}. {@link Result.Column#numberOfValuesRemaining()} excludes the
+     * current column.
+     */
+    private static int getColumnCount(Result.RowColumn rowColumn) {
+        return rowColumn.at(1).numberOfValuesRemaining() + 1;
+    }
+
+    @Override
+    public AdbaColumnMetadata getColumnMetadata(Object identifier) {
+
+        Assert.notNull(identifier, "Identifier must not be null!");
+
+        if (identifier instanceof Integer) {
+            return this.metadataMap.get(identifier);
+        }
+
+        if (!(identifier instanceof String)) {
+            return null;
+        }
+
+        int index = getColumnIndex((String) identifier);
+
+        return index != -1 ? this.metadataMap.get(index) : null;
+    }
+
+    /**
+     * Resolve the 1-based column position for {@code name}. Tries an exact match first and falls back to a
+     * case-insensitive match unless {@code name} is a quoted identifier.
+     *
+     * @param name must not be {@literal null}.
+     * @return the 1-based column position or {@literal -1} if there is no column named {@code name}.
+     */
+    int getColumnIndex(String name) {
+
+        Integer index = this.nameIndex.get(name);
+
+        if (index != null) {
+            return index;
+        }
+
+        if (isQuoted(name)) {
+            index = this.nameIndex.get(name.substring(1, name.length() - 1));
+        } else {
+            index = this.foldedNameIndex.get(fold(name));
+        }
+
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Obtain the {@link ColumnDecoder} for the column at {@code index} and the requested {@code type}. The decoder is
+     * selected through {@link Codecs} on first access using the {@link SqlType} of {@code column} and cached for
+     * subsequent rows. A cached decoder is reused only if {@code column} reports the {@link SqlType} the decoder was
+     * selected for.
+     *
+     * @param index  the 1-based column position.
+     * @param type   the requested type, must not be {@literal null}.
+     * @param column the column at {@code index}, must not be {@literal null}.
+     * @return the {@link ColumnDecoder}.
+     */
+    ColumnDecoder<?> getDecoder(int index, Class<?> type, Result.Column column) {
+
+        if (index < 1 || index >= this.decoders.length) {
+            return this.codecs.getDecoder(column.sqlType(), type);
+        }
+
+        SqlType sqlType = column.sqlType();
+        DecoderEntry[] entries = this.decoders[index];
+
+        if (entries != null) {
+            for (DecoderEntry entry : entries) {
+                if (entry.type == type && Objects.equals(entry.sqlType, sqlType)) {
+                    return entry.decoder;
+                }
+            }
+        }
+
+        DecoderEntry entry = new DecoderEntry(type, sqlType, this.codecs.getDecoder(sqlType, type));
+
+        // benign race: entry arrays are copied on write, concurrent results select equivalent decoders
+        this.decoders[index] = with(entries, entry);
+
+        return entry.decoder;
+    }
+
+    /**
+     * Return a copy of {@code entries} containing {@code entry} in place of an entry for the same requested type.
+     */
+    private static DecoderEntry[] with(@Nullable DecoderEntry[] entries, DecoderEntry entry) {
+
+        if (entries == null) {
+            return new DecoderEntry[]{entry};
+        }
+
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].type == entry.type) {
+
+                DecoderEntry[] copy = entries.clone();
+                copy[i] = entry;
+                return copy;
+            }
+        }
+
+        DecoderEntry[] copy = Arrays.copyOf(entries, entries.length + 1);
+        copy[entries.length] = entry;
+        return copy;
+    }
+
+    /**
+     * Obtain the {@link RowMapper} for {@code type} generated for the columns described by this {@link AdbaRowMetadata}.
+     * Mappers are generated once and cached.
+     *
+     * @param type must not be {@literal null}.
+     * @return the {@link RowMapper} for {@code type}.
+     * @see RowMappers
+     */
+    @SuppressWarnings("unchecked")
+    <T> RowMapper<T> getRowMapper(Class<T> type) {
+        return (RowMapper<T>) this.rowMappers.computeIfAbsent(type, it -> RowMappers.create(this, it));
+    }
+
+    private static boolean isQuoted(String name) {
+        return name.length() > 1 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"';
+    }
+
+    private static String fold(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public Collection<AdbaColumnMetadata> getColumnMetadatas() {
+        return this.metadataMap.values();
+    }
+
+    /**
+     * Cached {@link ColumnDecoder} for a requested type and column {@link SqlType}.
+     */
+    private static class DecoderEntry {
+
+        final Class<?> type;
+
+        @Nullable
+        final SqlType sqlType;
+
+        final ColumnDecoder<?> decoder;
+
+        DecoderEntry(Class<?> type, @Nullable SqlType sqlType, ColumnDecoder<?> decoder) {
+            this.type = type;
+            this.sqlType = sqlType;
+            this.decoder = decoder;
+        }
+    }
+}
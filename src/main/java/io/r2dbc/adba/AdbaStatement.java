@@ -20,20 +20,42 @@ import io.r2dbc.spi.Result;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import io.r2dbc.spi.Statement;
+import jdk.incubator.sql2.ArrayRowCountOperation;
+import jdk.incubator.sql2.Operation;
+import jdk.incubator.sql2.OperationGroup;
 import jdk.incubator.sql2.ParameterizedRowCountOperation;
+import jdk.incubator.sql2.ParameterizedRowOperation;
 import jdk.incubator.sql2.ParameterizedRowPublisherOperation;
 import jdk.incubator.sql2.Session;
+import jdk.incubator.sql2.Submission;
+import jdk.incubator.sql2.TransactionCompletion;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
-import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-
-import java.util.Optional;
+import reactor.core.publisher.Operators;
+import reactor.util.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
 import static jdk.incubator.sql2.Result.RowColumn;
 import static jdk.incubator.sql2.Result.RowCount;
@@ -44,23 +66,54 @@ import static jdk.incubator.sql2.Result.RowCount;
  * operations are:
  * <ul>
  * <li>{@link jdk.incubator.sql2.RowCountOperation}</li>
+ * <li>{@link jdk.incubator.sql2.ArrayRowCountOperation} for statements with multiple binding sets</li>
  * <li>{@link jdk.incubator.sql2.ParameterizedRowOperation}</li>
+ * <li>{@link jdk.incubator.sql2.ParameterizedRowPublisherOperation} over rewritten SQL for statements
+ * {@link #returnGeneratedValues(String...) returning generated values}</li>
  * </ul>
  *
  * @author Mark Paluch
  */
-class AdbaStatement implements Statement {
+public final class AdbaStatement implements Statement {
 
-    private final Bindings bindings = new Bindings();
+    private final Bindings bindings;
 
     private final jdk.incubator.sql2.Session session;
 
+    private final StatementTemplate template;
+
     private final String sql;
 
-    private AdbaStatement(Session session, String sql) {
+    private final AdbaOptions options;
+
+    private final OperationPipeline pipeline;
+
+    private final TransactionState transaction;
+
+    private long fetchSize;
+
+    private @Nullable
+    Duration timeout;
+
+    private @Nullable
+    String generatedValuesSql;
+
+    private final List<StreamParameter> streamParameters = new ArrayList<>();
+
+    private boolean futureParameters;
+
+    private boolean commit;
 
+    private AdbaStatement(Session session, StatementTemplate template, AdbaOptions options, OperationPipeline pipeline,
+                          TransactionState transaction) {
+
+        this.bindings = new Bindings(template.getParameterCount());
         this.session = session;
-        this.sql = sql;
+        this.template = template;
+        this.sql = template.getSql();
+        this.options = options;
+        this.pipeline = pipeline;
+        this.transaction = transaction;
     }
 
     @Override
@@ -71,62 +124,138 @@ class AdbaStatement implements Statement {
 
     @Override
     public AdbaStatement bind(int index, boolean value) {
-        return bind(index, (Object) value);
+
+        this.bindings.getCurrent().add(index, value);
+        return this;
     }
 
     @Override
     public AdbaStatement bind(int index, byte value) {
-        return bind(index, (Object) value);
+
+        this.bindings.getCurrent().add(index, value);
+        return this;
     }
 
     @Override
     public AdbaStatement bind(int index, char value) {
-        return bind(index, (Object) value);
+
+        this.bindings.getCurrent().add(index, value);
+        return this;
     }
 
     @Override
     public AdbaStatement bind(int index, double value) {
-        return bind(index, (Object) value);
+
+        this.bindings.getCurrent().add(index, value);
+        return this;
     }
 
     @Override
     public AdbaStatement bind(int index, float value) {
-        return bind(index, (Object) value);
+
+        this.bindings.getCurrent().add(index, value);
+        return this;
     }
 
     @Override
     public AdbaStatement bind(int index, int value) {
-        return bind(index, (Object) value);
+
+        this.bindings.getCurrent().add(index, value);
+        return this;
     }
 
     @Override
     public AdbaStatement bind(int index, long value) {
-        return bind(index, (Object) value);
+
+        this.bindings.getCurrent().add(index, value);
+        return this;
     }
 
     @Override
     public AdbaStatement bind(int index, short value) {
-        return bind(index, (Object) value);
+
+        this.bindings.getCurrent().add(index, value);
+        return this;
     }
 
+    /**
+     * Bind a value to a named parameter. {@link Mono} and {@link CompletionStage} values are bound as future
+     * parameters: the statement is submitted right away and the session awaits the value before executing it. Other
+     * {@link Publisher Publishers} of {@link ByteBuffer}s or {@link CharSequence}s and {@link LobStream}s are written
+     * into a BLOB or CLOB created through the {@link AdbaOptions#getLobFactory() LobFactory} with at most one element
+     * buffered at a time. Creating the large object costs an additional round trip before the statement is executed. A
+     * publisher is consumed by a single execution only.
+     *
+     * @param identifier the parameter name, must not be {@literal null}.
+     * @param value      the value, must not be {@literal null}.
+     * @return {@literal this} {@link AdbaStatement}.
+     * @throws IllegalStateException if {@code value} is streamed and no {@link LobFactory} is configured.
+     */
     @Override
     public AdbaStatement bind(Object identifier, Object value) {
 
-        this.bindings.getCurrent().add((String) identifier, Optional.of(value));
+        this.bindings.getCurrent().add((String) identifier, potentiallyStream(value));
         return this;
     }
 
+    /**
+     * Bind a value to an index-based parameter. {@link Mono} and {@link CompletionStage} values are bound as future
+     * parameters: the statement is submitted right away and the session awaits the value before executing it. Other
+     * {@link Publisher Publishers} of {@link ByteBuffer}s or {@link CharSequence}s and {@link LobStream}s are written
+     * into a BLOB or CLOB created through the {@link AdbaOptions#getLobFactory() LobFactory} with at most one element
+     * buffered at a time. Creating the large object costs an additional round trip before the statement is executed. A
+     * publisher is consumed by a single execution only.
+     *
+     * @param index the zero-based parameter index.
+     * @param value the value, must not be {@literal null}.
+     * @return {@literal this} {@link AdbaStatement}.
+     * @throws IllegalStateException if {@code value} is streamed and no {@link LobFactory} is configured.
+     */
     @Override
     public AdbaStatement bind(int index, Object value) {
 
-        this.bindings.getCurrent().add(index, Optional.of(value));
+        this.bindings.getCurrent().add(index, potentiallyStream(value));
         return this;
     }
 
+    private Object potentiallyStream(Object value) {
+
+        if (value instanceof LobStream) {
+
+            assertLobFactory();
+
+            StreamParameter parameter = StreamParameter.create((LobStream) value);
+            this.streamParameters.add(parameter);
+            return parameter;
+        }
+
+        if (value instanceof Publisher && !(value instanceof Mono)) {
+
+            assertLobFactory();
+
+            StreamParameter parameter = StreamParameter.create((Publisher<?>) value);
+            this.streamParameters.add(parameter);
+            return parameter;
+        }
+
+        if (value instanceof Mono || value instanceof CompletionStage) {
+            this.futureParameters = true;
+        }
+
+        return value;
+    }
+
+    private void assertLobFactory() {
+
+        if (this.options.getLobFactory() == null) {
+            throw new IllegalStateException("Binding a streamed parameter value requires a LobFactory. Configure one through AdbaOptions.withLobFactory(LobFactory)");
+        }
+    }
+
     @Override
     public AdbaStatement bindNull(Object identifier, Class<?> aClass) {
 
-        this.bindings.getCurrent().add((String) identifier, Optional.empty());
+        this.bindings.getCurrent().addNull((String) identifier);
 
         return this;
     }
@@ -134,19 +263,113 @@ class AdbaStatement implements Statement {
     @Override
     public AdbaStatement bindNull(int index, Class<?> aClass) {
 
-        this.bindings.getCurrent().add(index, Optional.empty());
+        this.bindings.getCurrent().addNull(index);
 
         return this;
     }
 
     @Override
     public Mono<AdbaResult> execute() {
-        return Mono.just(new AdbaResult());
+
+        this.template.setParameterCount(this.bindings.getParameterCount());
+
+        return Mono.just(new AdbaResult(this.session, this.pipeline, this.commit ? this.transaction : null, false));
+    }
+
+    /**
+     * Commit the active transaction along with this statement. The statement's operations and the
+     * {@link OperationGroup#endTransactionOperation(jdk.incubator.sql2.TransactionCompletion) transaction end operation}
+     * are submitted as members of one sequential {@link OperationGroup}. The transaction end operation is submitted right
+     * after the statement's operations so that the session sends both together without an additional round trip; the
+     * group is closed afterwards. Commit failures are emitted by the result once the statement's results are consumed.
+     * The commit is skipped if the statement fails; the transaction remains active and can be rolled back. Executes the
+     * statement without commit if no transaction is active.
+     *
+     * @return {@literal this} {@link AdbaStatement}.
+     * @see AdbaConnection#commitTransaction()
+     */
+    public AdbaStatement andCommit() {
+
+        this.commit = true;
+        return this;
+    }
+
+    /**
+     * Execute this statement as member of an {@link OperationGroup}. Operations are created from and submitted to
+     * {@code group} instead of the session.
+     *
+     * @param group the {@link OperationGroup} to add operations to, must not be {@literal null}.
+     * @return the {@link AdbaResult} backed by {@code group}.
+     */
+    AdbaResult executeIn(OperationGroup<Object, Object> group) {
+
+        Assert.notNull(group, "OperationGroup must not be null!");
+
+        this.template.setParameterCount(this.bindings.getParameterCount());
+
+        return new AdbaResult(group, OperationPipeline.create(0), null, false);
+    }
+
+    /**
+     * Configure the number of rows to fetch per round trip when consuming rows through {@link Result#map(BiFunction)}.
+     * Overrides the fetch size configured through {@link AdbaOptions}.
+     *
+     * @param rows number of rows, must be greater than zero.
+     * @return {@literal this} {@link AdbaStatement}.
+     * @see ParameterizedRowPublisherOperation#fetchSize(long)
+     */
+    public AdbaStatement fetchSize(long rows) {
+
+        Assert.isTrue(rows > 0, "Fetch size must be greater than zero!");
+
+        this.fetchSize = rows;
+        return this;
+    }
+
+    /**
+     * Configure the timeout for the operations of this statement. The timeout is applied through
+     * {@link Operation#timeout(Duration)} so that the driver aborts the operation once it expires. A timed out statement
+     * fails with {@link AdbaTimeoutException}. Overrides the statement timeout configured through {@link AdbaOptions}.
+     *
+     * @param timeout must not be {@literal null} or negative. {@link Duration#ZERO} to not apply a timeout.
+     * @return {@literal this} {@link AdbaStatement}.
+     * @see AdbaOptions#withStatementTimeout(Duration)
+     */
+    public AdbaStatement timeout(Duration timeout) {
+
+        Assert.notNull(timeout, "Timeout must not be null!");
+        Assert.isTrue(!timeout.isNegative(), "Timeout must not be negative!");
+
+        this.timeout = timeout;
+        return this;
     }
 
+    /**
+     * Return generated values of a data-modifying statement. The SQL is rewritten through the configured
+     * {@link GeneratedValuesRewriter} (by default appending a {@code RETURNING} clause) and executed as a
+     * {@link ParameterizedRowPublisherOperation row operation} so that generated values and update counts are obtained in
+     * a single round trip. {@link Result#map(BiFunction)} emits a row of generated values per affected row and
+     * {@link Result#getRowsUpdated()} counts the returned rows. Statements with multiple binding sets submit the
+     * operations of all binding sets without awaiting completion of the previous one.
+     *
+     * @param columns names of the columns to return, must not be {@literal null}. Empty to return all generated values.
+     * @return {@literal this} {@link AdbaStatement}.
+     * @throws IllegalArgumentException if the {@link GeneratedValuesRewriter} cannot rewrite the statement or does not
+     *                                  support a column name.
+     * @see AdbaOptions#withGeneratedValuesRewriter(GeneratedValuesRewriter)
+     */
     @Override
-    public Statement returnGeneratedValues(String... columns) {
-        throw new UnsupportedOperationException("Unsupported SPI operation. Use SQL to retrieve generated keys for a modifying action");
+    public AdbaStatement returnGeneratedValues(String... columns) {
+
+        Assert.notNull(columns, "Columns must not be null!");
+
+        String generatedValuesSql = this.options.getGeneratedValuesRewriter().rewrite(this.sql, Arrays.asList(columns));
+
+        // executing the SQL unchanged as row operation would silently report no affected rows
+        Assert.notNull(generatedValuesSql, () -> String.format("Cannot rewrite [%s] to return generated values; configure a GeneratedValuesRewriter through AdbaOptions", this.sql));
+
+        this.generatedValuesSql = generatedValuesSql;
+        return this;
     }
 
     /**
@@ -157,118 +380,744 @@ class AdbaStatement implements Statement {
      * @return the {@link AdbaStatement} for {@link Connection} and {@code sql}
      */
     static AdbaStatement create(Session session, String sql) {
+        return create(session, sql, AdbaOptions.create());
+    }
+
+    /**
+     * Creates a {@link AdbaStatement} given {@link Session}, {@code sql}, and {@link AdbaOptions}.
+     *
+     * @param session must not be {@literal null}.
+     * @param sql     must not be {@literal null}.
+     * @param options must not be {@literal null}.
+     * @return the {@link AdbaStatement} for {@link Connection} and {@code sql}
+     */
+    static AdbaStatement create(Session session, String sql, AdbaOptions options) {
 
-        Assert.notNull(session, "Session must not be null!");
         Assert.notNull(sql, "SQL must not be null!");
 
-        return new AdbaStatement(session, sql);
+        return create(session, StatementTemplate.create(sql), options);
+    }
+
+    /**
+     * Creates a {@link AdbaStatement} given {@link Session}, a {@link StatementTemplate}, and {@link AdbaOptions}. The
+     * {@link StatementTemplate} is typically obtained from a {@link StatementCache} so that repeated executions of the
+     * same SQL reuse state learned from earlier executions.
+     *
+     * @param session  must not be {@literal null}.
+     * @param template must not be {@literal null}.
+     * @param options  must not be {@literal null}.
+     * @return the {@link AdbaStatement} for {@link Connection} and {@link StatementTemplate}
+     */
+    static AdbaStatement create(Session session, StatementTemplate template, AdbaOptions options) {
+        return create(session, template, options, OperationPipeline.create(0));
     }
 
     /**
-     * R2DBC wrapper for ADBA operations.
+     * Creates a {@link AdbaStatement} given {@link Session}, a {@link StatementTemplate}, {@link AdbaOptions}, and the
+     * {@link OperationPipeline} of the connection through which operations are submitted.
+     *
+     * @param session  must not be {@literal null}.
+     * @param template must not be {@literal null}.
+     * @param options  must not be {@literal null}.
+     * @param pipeline must not be {@literal null}.
+     * @return the {@link AdbaStatement} for {@link Connection} and {@link StatementTemplate}
      */
-    class AdbaResult implements Result {
+    static AdbaStatement create(Session session, StatementTemplate template, AdbaOptions options, OperationPipeline pipeline) {
+        return create(session, template, options, pipeline, new TransactionState());
+    }
+
+    /**
+     * Creates a {@link AdbaStatement} given {@link Session}, a {@link StatementTemplate}, {@link AdbaOptions}, the
+     * {@link OperationPipeline} of the connection through which operations are submitted, and the connection's
+     * {@link TransactionState}.
+     *
+     * @param session     must not be {@literal null}.
+     * @param template    must not be {@literal null}.
+     * @param options     must not be {@literal null}.
+     * @param pipeline    must not be {@literal null}.
+     * @param transaction must not be {@literal null}.
+     * @return the {@link AdbaStatement} for {@link Connection} and {@link StatementTemplate}
+     */
+    static AdbaStatement create(Session session, StatementTemplate template, AdbaOptions options, OperationPipeline pipeline,
+                                TransactionState transaction) {
+
+        Assert.notNull(session, "Session must not be null!");
+        Assert.notNull(template, "StatementTemplate must not be null!");
+        Assert.notNull(options, "AdbaOptions must not be null!");
+        Assert.notNull(pipeline, "OperationPipeline must not be null!");
+        Assert.notNull(transaction, "TransactionState must not be null!");
+
+        return new AdbaStatement(session, template, options, pipeline, transaction);
+    }
+
+    /**
+     * Determine the fetch size to apply given the first downstream demand. A statement-level fetch size takes precedence
+     * over a fetch size derived from demand and the {@link AdbaOptions#getFetchSize() default fetch size}.
+     *
+     * @param demand the first requested amount of rows.
+     * @return the fetch size or {@literal 0} to use the driver default.
+     */
+    long getFetchSize(long demand) {
+
+        if (this.fetchSize > 0) {
+            return this.fetchSize;
+        }
+
+        if (this.options.isFetchSizeFromDemand() && demand != Long.MAX_VALUE) {
+            return demand;
+        }
+
+        return this.options.getFetchSize();
+    }
+
+    /**
+     * Determine the timeout to apply. A statement-level timeout takes precedence over the
+     * {@link AdbaOptions#getStatementTimeout() default statement timeout}.
+     *
+     * @return the timeout or {@link Duration#ZERO} to not apply a timeout.
+     */
+    Duration getTimeout() {
+        return this.timeout != null ? this.timeout : this.options.getStatementTimeout();
+    }
+
+    private <T extends Operation<?>> T applyTimeout(T operation) {
+
+        Duration timeout = getTimeout();
+        if (!timeout.isZero()) {
+            operation.timeout(timeout);
+        }
+
+        return operation;
+    }
+
+    /**
+     * R2DBC wrapper for ADBA operations. Statements with multiple {@link #add() binding sets} are executed as a single
+     * {@link ArrayRowCountOperation} when obtaining {@link #getRowsUpdated() update counts} and as a sequence of
+     * {@link ParameterizedRowPublisherOperation row operations} when {@link #map(BiFunction) mapping rows}.
+     */
+    public class AdbaResult implements Result {
+
+        private final OperationGroup<Object, Object> operations;
+
+        private final OperationPipeline pipeline;
+
+        private final @Nullable
+        TransactionState commitTransaction;
+
+        private final boolean eager;
+
+        private final @Nullable
+        Runnable memberCallback;
+
+        /**
+         * @param operations        the {@link OperationGroup} to create operations from.
+         * @param pipeline          the {@link OperationPipeline} to submit operations through.
+         * @param commitTransaction the {@link TransactionState} to commit along with this result. Can be {@literal null}.
+         * @param eager             whether to submit the operations of all binding sets without awaiting completion of
+         *                          the previous one.
+         */
+        AdbaResult(OperationGroup<Object, Object> operations, OperationPipeline pipeline,
+                   @Nullable TransactionState commitTransaction, boolean eager) {
+            this(operations, pipeline, commitTransaction, eager, null);
+        }
+
+        /**
+         * @param operations        the {@link OperationGroup} to create operations from.
+         * @param pipeline          the {@link OperationPipeline} to submit operations through.
+         * @param commitTransaction the {@link TransactionState} to commit along with this result. Can be {@literal null}.
+         * @param eager             whether to submit the operations of all binding sets without awaiting completion of
+         *                          the previous one.
+         * @param memberCallback    callback invoked from within the {@link OperationPipeline} task that submits a
+         *                          statement operation, right before its submission. Can be {@literal null}.
+         */
+        AdbaResult(OperationGroup<Object, Object> operations, OperationPipeline pipeline,
+                   @Nullable TransactionState commitTransaction, boolean eager, @Nullable Runnable memberCallback) {
+            this.operations = operations;
+            this.pipeline = pipeline;
+            this.commitTransaction = commitTransaction;
+            this.eager = eager;
+            this.memberCallback = memberCallback;
+        }
 
         @Override
-        public Publisher<Integer> getRowsUpdated() {
+        public Flux<Integer> getRowsUpdated() {
+
+            if (this.commitTransaction != null) {
+                int operationCount = generatedValuesSql == null && streamParameters.isEmpty() && !futureParameters && bindings.size() > 1 ? 1 : getBindingCount();
+
+                return committing(this.commitTransaction, operationCount, AdbaResult::getRowsUpdated);
+            }
+
+            if (generatedValuesSql != null) {
+
+                // generated values are returned as rows: each row represents an affected row
+                return bindings().flatMapSequential(binding -> map(binding, generatedValuesSql, (row, metadata) -> row).count()) //
+                        .map(Long::intValue);
+            }
 
-            return AdbaUtils.submitLater(() -> {
+            if (!streamParameters.isEmpty() || futureParameters) {
 
+                // streamed and future values cannot be bound column-wise, submit one operation per binding set
+                return this.eager ? bindings().flatMapSequential(this::rowsUpdated) : bindings().concatMap(this::rowsUpdated);
+            }
 
-                ParameterizedRowCountOperation<Number> countOperation = session.rowCountOperation(sql);
+            if (bindings.size() > 1) {
 
-                return bindings.getCurrent().bind(countOperation).apply(RowCount::getCount);
-            }).map(Number::intValue);
+                return this.pipeline.submitLater(() -> {
+
+                    ArrayRowCountOperation<List<Integer>> countOperation = applyTimeout(operations.arrayRowCountOperation(sql));
+
+                    return member(bindings.bind(countOperation, options.getTypeResolver())).collect(Collectors.mapping((RowCount it) -> (int) it.getCount(), Collectors.toList()));
+                }).flatMapIterable(Function.identity());
+            }
+
+            return rowsUpdated(bindings.stream().findFirst().orElseGet(Binding::new));
+        }
+
+        private Flux<Integer> rowsUpdated(Binding binding) {
+
+            return this.pipeline.submitLater(() -> {
+
+                ParameterizedRowCountOperation<Number> countOperation = applyTimeout(operations.rowCountOperation(sql));
+
+                return member(binding.bind(countOperation, options.getTypeResolver()).apply(RowCount::getCount));
+            }).map(Number::intValue).flux();
         }
 
         @Override
-        public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> f) {
+        public <T> Flux<T> map(BiFunction<Row, RowMetadata, ? extends T> f) {
+
+            if (this.commitTransaction != null) {
+                return committing(this.commitTransaction, getBindingCount(), result -> result.map(f));
+            }
+
+            if (generatedValuesSql != null) {
+                return bindings().flatMapSequential(binding -> map(binding, generatedValuesSql, f));
+            }
+
+            return this.eager ? bindings().flatMapSequential(binding -> map(binding, sql, f)) : bindings().concatMap(binding -> map(binding, sql, f));
+        }
+
+        /**
+         * Map rows to instances of {@code type}. Records are created through their canonical constructor, other types
+         * through their no-argument constructor and populated through setters or fields. Properties are matched to
+         * columns by name, ignoring case, or by their {@code snake_case} name. A mapper is generated once per result
+         * shape and type with column positions bound ahead of time so that rows are decoded positionally.
+         *
+         * @param type the type to map rows to, must not be {@literal null}.
+         * @param <T>  the mapped type.
+         * @return a {@link Flux} of mapped objects.
+         * @throws IllegalArgumentException if {@code type} cannot be instantiated.
+         */
+        public <T> Flux<T> map(Class<T> type) {
+
+            Assert.notNull(type, "Type must not be null!");
+
+            return map(RowMappers.forType(type));
+        }
 
-            EmitterProcessor<RowColumn> rowProcessor = EmitterProcessor.create(true);
+        /**
+         * Emit the binding sets of this statement once all {@link StreamParameter streamed values} are written into
+         * their large objects. Streamed values are written one after another.
+         */
+        private Flux<Binding> bindings() {
 
+            Flux<Binding> bindingFlux = Flux.defer(() -> Flux.fromStream(bindings.stream())).defaultIfEmpty(new Binding());
+
+            if (streamParameters.isEmpty()) {
+                return bindingFlux;
+            }
+
+            return Flux.fromIterable(streamParameters).concatMap(it -> it.write(this.operations, this.pipeline, options.getLobFactory())).thenMany(bindingFlux);
+        }
+
+        /**
+         * Consume this result within a sequential {@link OperationGroup} followed by the
+         * {@link OperationGroup#endTransactionOperation(jdk.incubator.sql2.TransactionCompletion) transaction end
+         * operation}. The transaction end operation is submitted right after the last of {@code operationCount} statement
+         * operations and the group is closed once it is submitted, or when the returned {@link Flux} terminates or is
+         * cancelled before. The outcome of the transaction end operation is emitted after the statement's results. Falls
+         * back to consuming this result without commit if no transaction is active.
+         */
+        private <T> Flux<T> committing(TransactionState transaction, int operationCount, Function<AdbaResult, Flux<T>> resultFunction) {
 
             return Flux.defer(() -> {
 
-                ParameterizedRowPublisherOperation<Object> publisherOperation = session.rowPublisherOperation(sql);
+                TransactionCompletion transactionCompletion = transaction.take();
+
+                if (transactionCompletion == null) {
+                    return resultFunction.apply(new AdbaResult(this.operations, this.pipeline, null, this.eager));
+                }
+
+                return this.pipeline.<Object, Object>submitGroup(session::operationGroup).flatMapMany(group -> {
+
+                    OperationPipeline members = OperationPipeline.create(0);
+                    CompletableFuture<Object> commit = new CompletableFuture<>();
+                    AtomicBoolean closed = new AtomicBoolean();
+                    AtomicInteger remaining = new AtomicInteger(operationCount);
+
+                    Runnable close = () -> {
 
-                ParameterizedRowPublisherOperation<Object> subscribe =
-                        bindings.getCurrent().bind(publisherOperation);
+                        if (closed.compareAndSet(false, true)) {
+                            group.close();
+                        }
+                    };
 
-                subscribe.subscribe(new FlowSubscriberAdapter<>(rowProcessor), new CompletableFuture<>()).submit();
+                    // invoked from within the members pipeline: the transaction end task is submitted right after the
+                    // statement operation of the current task
+                    Runnable memberCallback = () -> {
 
-                return rowProcessor;
-            }).<T>handle((rowColumn, sink) -> {
+                        if (remaining.decrementAndGet() == 0) {
+                            members.enqueue(() -> {
 
-                AdbaRow row = AdbaRow.create(rowColumn);
+                                try {
+                                    CompletionStage<Object> completion = group.endTransactionOperation(transactionCompletion).submit().getCompletionStage();
+                                    completion.whenComplete((result, e) -> {
 
-                try {
+                                        if (e != null) {
+                                            commit.completeExceptionally(e);
+                                        } else {
+                                            commit.complete(result);
+                                        }
+                                    });
 
-                    T mapped = f.apply(row, row);
-                    if (mapped == null) {
-                        return;
+                                    return completion;
+                                } catch (RuntimeException e) {
+
+                                    commit.completeExceptionally(e);
+                                    return null;
+                                } finally {
+                                    close.run();
+                                }
+                            }, commit::completeExceptionally);
+                        }
+                    };
+
+                    Mono<T> committed = Mono.fromCompletionStage(commit).onErrorMap(AdbaUtils.exceptionMapper()).then(Mono.empty());
+
+                    return resultFunction.apply(new AdbaResult(group, members, null, true, memberCallback)).concatWith(committed) //
+                            .doFinally(signalType -> close.run());
+                }).doOnError(e -> transaction.restore(transactionCompletion));
+            });
+        }
+
+        private <T> Flux<T> map(Binding binding, String sql, BiFunction<Row, RowMetadata, ? extends T> f) {
+
+            return Flux.<T>from(subscriber -> new FlowSubscriberAdapter<T>(subscriber, f, this::getRowMetadata, this.pipeline, demand -> rowPublisherOperation(binding, sql, demand)).start());
+        }
+
+        /**
+         * Map rows using {@code mappingFunction} and fold the mapped values into a single value using {@link Collector}.
+         * Statements with a single binding set are executed as {@link ParameterizedRowOperation} that maps and collects
+         * rows within the driver, avoiding the per-row demand and queueing of {@link #map(BiFunction) mapping}. Rows of
+         * statements with multiple binding sets are consumed sequentially and accumulated into a single container.
+         * {@link Row}s are valid only during {@code mappingFunction} invocation.
+         *
+         * @param mappingFunction the function to map each {@link Row}, must not be {@literal null}.
+         * @param collector       the {@link Collector} to apply to mapped values, must not be {@literal null}.
+         * @param <T>             the mapped type.
+         * @param <A>             the mutable accumulation type.
+         * @param <R>             the result type.
+         * @return a {@link Mono} emitting the collected value. Empty if the collector returns {@literal null}.
+         */
+        public <T, A, R> Mono<R> collect(BiFunction<Row, RowMetadata, ? extends T> mappingFunction, Collector<? super T, A, R> collector) {
+
+            Assert.notNull(mappingFunction, "Mapping function must not be null!");
+            Assert.notNull(collector, "Collector must not be null!");
+
+            if (this.commitTransaction != null) {
+                return committing(this.commitTransaction, getBindingCount(), result -> result.collect(mappingFunction, collector).flux()).singleOrEmpty();
+            }
+
+            String sqlToUse = generatedValuesSql != null ? generatedValuesSql : sql;
+
+            if (bindings.size() <= 1) {
+                return bindings().next().flatMap(binding -> collect(binding, sqlToUse, mappingFunction, collector));
+            }
+
+            return Mono.defer(() -> {
+
+                A container = collector.supplier().get();
+                BiConsumer<A, ? super T> accumulator = collector.accumulator();
+
+                return bindings().concatMap(binding -> map(binding, sqlToUse, (row, metadata) -> {
+
+                    accumulator.accept(container, mappingFunction.apply(row, metadata));
+                    return null;
+                })).then(Mono.fromSupplier(() -> collector.finisher().apply(container)));
+            });
+        }
+
+        /**
+         * Map rows to instances of {@code type} as described for {@link #map(Class)} and fold them into a single value
+         * using {@link Collector}.
+         *
+         * @param type      the type to map rows to, must not be {@literal null}.
+         * @param collector the {@link Collector} to apply to mapped values, must not be {@literal null}.
+         * @param <T>       the mapped type.
+         * @param <A>       the mutable accumulation type.
+         * @param <R>       the result type.
+         * @return a {@link Mono} emitting the collected value. Empty if the collector returns {@literal null}.
+         * @throws IllegalArgumentException if {@code type} cannot be instantiated.
+         * @see #collect(BiFunction, Collector)
+         */
+        public <T, A, R> Mono<R> collect(Class<T> type, Collector<? super T, A, R> collector) {
+
+            Assert.notNull(type, "Type must not be null!");
+
+            return collect(RowMappers.forType(type), collector);
+        }
+
+        private <T, A, R> Mono<R> collect(Binding binding, String sql, BiFunction<Row, RowMetadata, ? extends T> mappingFunction,
+                                          Collector<? super T, A, R> collector) {
+
+            return this.pipeline.submitLater(() -> {
+
+                ParameterizedRowOperation<R> rowOperation = binding.bind(applyTimeout(operations.<R>rowOperation(sql)), options.getTypeResolver());
+                AdbaRowMetadata[] metadata = new AdbaRowMetadata[1];
+
+                return member(rowOperation).collect(Collectors.mapping((RowColumn rowColumn) -> {
+
+                    if (metadata[0] == null) {
+                        metadata[0] = getRowMetadata(rowColumn);
                     }
 
-                    sink.next(mapped);
-                } catch (Exception e) {
-                    sink.error(e);
-                }
-            }).onErrorMap(AdbaUtils.exceptionMapper());
+                    return mappingFunction.apply(AdbaRow.create(rowColumn, metadata[0]), metadata[0]);
+                }, collector));
+            });
         }
-    }
 
-    /**
-     * Delegates Reactive Streams {@link Subscription} calls to a {@link Flow.Subscription}.
-     */
-    static class FlowSubscriptionAdapter implements Subscription {
+        /**
+         * Consume rows in column-oriented {@link RowBatch batches} of {@code batchSize} rows. Values are read from the
+         * driver straight into primitive column arrays without creating a {@link Row} per row. Each requested batch
+         * requests {@code batchSize} rows from the driver. The last batch of each binding set may hold fewer rows.
+         *
+         * @param batchSize the number of rows per batch, must be greater than zero.
+         * @return a {@link Flux} of {@link RowBatch}es.
+         */
+        public Flux<RowBatch> batches(int batchSize) {
 
-        private final Flow.Subscription subscription;
+            Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
 
-        FlowSubscriptionAdapter(Flow.Subscription subscription) {
-            this.subscription = subscription;
+            if (this.commitTransaction != null) {
+                return committing(this.commitTransaction, getBindingCount(), result -> result.batches(batchSize));
+            }
+
+            String sqlToUse = generatedValuesSql != null ? generatedValuesSql : sql;
+
+            return this.eager || generatedValuesSql != null ? bindings().flatMapSequential(binding -> batches(binding, sqlToUse, batchSize))
+                    : bindings().concatMap(binding -> batches(binding, sqlToUse, batchSize));
         }
 
-        @Override
-        public void request(long n) {
-            subscription.request(n);
+        private Flux<RowBatch> batches(Binding binding, String sql, int batchSize) {
+
+            return Flux.<RowBatch>from(subscriber -> {
+
+                RowBatch.Builder builder = RowBatch.builder(batchSize);
+
+                new FlowSubscriberAdapter<>(subscriber, builder::add, builder::build, batchSize, this::getRowMetadata, this.pipeline,
+                        demand -> rowPublisherOperation(binding, sql, demand)).start();
+            });
         }
 
-        @Override
-        public void cancel() {
-            subscription.cancel();
+        private AdbaRowMetadata getRowMetadata(RowColumn rowColumn) {
+            return template.getRowMetadata(rowColumn, options.getCodecs());
+        }
+
+        private ParameterizedRowPublisherOperation<Object> rowPublisherOperation(Binding binding, String sql, long demand) {
+
+            ParameterizedRowPublisherOperation<Object> publisherOperation = binding.bind(applyTimeout(operations.<Object>rowPublisherOperation(sql)), options.getTypeResolver());
+
+            long fetchSize = getFetchSize(demand);
+            if (fetchSize > 0) {
+                publisherOperation.fetchSize(fetchSize);
+            }
+
+            return member(publisherOperation);
+        }
+
+        /**
+         * Notify the {@link #memberCallback member callback} that {@code operation} is about to be submitted.
+         */
+        private <O> O member(O operation) {
+
+            if (this.memberCallback != null) {
+                this.memberCallback.run();
+            }
+
+            return operation;
+        }
+
+        /**
+         * @return the number of binding sets, at least one.
+         */
+        private int getBindingCount() {
+            return Math.max(1, bindings.size());
         }
     }
 
     /**
-     * Delegates {@link Flow.Subscriber} calls to a Reactive Streams {@link Subscriber}.
+     * Subscribes directly to a {@link ParameterizedRowPublisherOperation} and maps each {@link RowColumn row} to the
+     * downstream {@link Subscriber} without intermediate queueing. The operation is created and enqueued to the
+     * {@link OperationPipeline} on the first downstream {@link #request(long) request} so its fetch size can be derived
+     * from demand. The operation releases its pipeline slot once submitted as its completion depends on downstream
+     * demand; holding the slot would deadlock statements issued while consuming rows. Demand and cancellation signals
+     * are passed through to the {@link Flow.Subscription} as-is. Cancellation additionally cancels the operation's
+     * {@link Submission} so the session stops executing it instead of producing rows nobody consumes. Rows for which
+     * the mapping function returns {@literal null} are dropped and replenished with a request for another row.
+     * {@link AdbaRowMetadata} is obtained for the first row and shared across all subsequent rows.
+     * <p>
+     * When each element aggregates multiple rows (e.g. {@link RowBatch}), downstream demand is scaled by the number of
+     * rows per element, rows mapped to {@literal null} are not replenished, and the completion function may emit a final
+     * partial element.
      *
-     * @param <T>
+     * @param <T> the mapped type.
      */
-    static class FlowSubscriberAdapter<T> implements Flow.Subscriber<T> {
+    static class FlowSubscriberAdapter<T> implements Flow.Subscriber<RowColumn>, Subscription {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<FlowSubscriberAdapter> REQUESTED = AtomicLongFieldUpdater.newUpdater(FlowSubscriberAdapter.class, "requested");
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<FlowSubscriberAdapter> SUBMITTED = AtomicIntegerFieldUpdater.newUpdater(FlowSubscriberAdapter.class, "submitted");
+
+        private final Subscriber<? super T> delegate;
+
+        private final BiFunction<RowColumn, AdbaRowMetadata, ? extends T> mappingFunction;
 
-        private final Subscriber<T> delegate;
+        private final Supplier<? extends T> completionFunction;
 
-        FlowSubscriberAdapter(Subscriber<T> delegate) {
+        private final int rowsPerElement;
+
+        private final Function<RowColumn, AdbaRowMetadata> metadataFunction;
+
+        private final OperationPipeline pipeline;
+
+        private final LongFunction<ParameterizedRowPublisherOperation<Object>> operationFunction;
+
+        private volatile Flow.Subscription subscription;
+
+        private volatile @Nullable
+        Submission<?> submission;
+
+        private volatile long requested;
+
+        private volatile int submitted;
+
+        private volatile boolean cancelled;
+
+        private boolean done;
+
+        private @Nullable
+        AdbaRowMetadata metadata;
+
+        FlowSubscriberAdapter(Subscriber<? super T> delegate, BiFunction<Row, RowMetadata, ? extends T> mappingFunction,
+                              Function<RowColumn, AdbaRowMetadata> metadataFunction, OperationPipeline pipeline,
+                              LongFunction<ParameterizedRowPublisherOperation<Object>> operationFunction) {
+            this(delegate, (rowColumn, metadata) -> mappingFunction.apply(AdbaRow.create(rowColumn, metadata), metadata), () -> null, 1, metadataFunction,
+                    pipeline, operationFunction);
+        }
+
+        FlowSubscriberAdapter(Subscriber<? super T> delegate, BiFunction<RowColumn, AdbaRowMetadata, ? extends T> mappingFunction,
+                              Supplier<? extends T> completionFunction, int rowsPerElement, Function<RowColumn, AdbaRowMetadata> metadataFunction,
+                              OperationPipeline pipeline, LongFunction<ParameterizedRowPublisherOperation<Object>> operationFunction) {
             this.delegate = delegate;
+            this.mappingFunction = mappingFunction;
+            this.completionFunction = completionFunction;
+            this.rowsPerElement = rowsPerElement;
+            this.metadataFunction = metadataFunction;
+            this.pipeline = pipeline;
+            this.operationFunction = operationFunction;
+        }
+
+        /**
+         * Subscribe the downstream {@link Subscriber} to this adapter.
+         */
+        void start() {
+            this.delegate.onSubscribe(this);
         }
 
         @Override
         public void onSubscribe(Flow.Subscription subscription) {
-            delegate.onSubscribe(new FlowSubscriptionAdapter(subscription));
+
+            this.subscription = subscription;
+
+            if (this.cancelled) {
+                subscription.cancel();
+                return;
+            }
+
+            long demand = REQUESTED.getAndSet(this, 0);
+            if (demand != 0) {
+                subscription.request(demand);
+            }
         }
 
         @Override
-        public void onNext(T item) {
-            delegate.onNext(item);
+        public void onNext(RowColumn item) {
+
+            if (this.done) {
+                return;
+            }
+
+            T mapped;
+
+            try {
+
+                if (this.metadata == null) {
+                    this.metadata = this.metadataFunction.apply(item);
+                }
+
+                mapped = this.mappingFunction.apply(item, this.metadata);
+            } catch (RuntimeException e) {
+
+                this.done = true;
+                this.subscription.cancel();
+                cancelSubmission();
+                this.delegate.onError(AdbaUtils.exceptionMapper().apply(e));
+                return;
+            }
+
+            if (mapped == null) {
+
+                if (this.rowsPerElement == 1) {
+                    this.subscription.request(1);
+                }
+                return;
+            }
+
+            this.delegate.onNext(mapped);
         }
 
         @Override
         public void onError(Throwable throwable) {
-            delegate.onError(throwable);
+
+            if (this.done) {
+                return;
+            }
+
+            this.done = true;
+            this.delegate.onError(AdbaUtils.exceptionMapper().apply(throwable));
         }
 
         @Override
         public void onComplete() {
-            delegate.onComplete();
+
+            if (this.done) {
+                return;
+            }
+
+            this.done = true;
+
+            T last;
+
+            try {
+                last = this.completionFunction.get();
+            } catch (RuntimeException e) {
+                this.delegate.onError(AdbaUtils.exceptionMapper().apply(e));
+                return;
+            }
+
+            if (last != null) {
+                this.delegate.onNext(last);
+            }
+
+            this.delegate.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+
+            if (!Operators.validate(n)) {
+                return;
+            }
+
+            if (this.rowsPerElement != 1) {
+                n = Operators.multiplyCap(n, this.rowsPerElement);
+            }
+
+            Flow.Subscription subscription = this.subscription;
+            if (subscription != null) {
+                subscription.request(n);
+                return;
+            }
+
+            Operators.addCap(REQUESTED, this, n);
+
+            if (SUBMITTED.compareAndSet(this, 0, 1)) {
+                this.pipeline.enqueue(() -> submit(n), this::onDeferredError);
+            }
+
+            subscription = this.subscription;
+            if (subscription != null) {
+
+                long demand = REQUESTED.getAndSet(this, 0);
+                if (demand != 0) {
+                    subscription.request(demand);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+
+            this.cancelled = true;
+
+            Flow.Subscription subscription = this.subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+
+            cancelSubmission();
+        }
+
+        /**
+         * Fail the downstream subscriber if a session command submitted along with the operation failed.
+         */
+        private void onDeferredError(Throwable throwable) {
+
+            if (this.done) {
+                return;
+            }
+
+            this.done = true;
+            cancelSubmission();
+            this.delegate.onError(AdbaUtils.exceptionMapper().apply(throwable));
+        }
+
+        private void cancelSubmission() {
+
+            Submission<?> submission = this.submission;
+            if (submission != null) {
+                submission.cancel();
+            }
+        }
+
+        @Nullable
+        private CompletionStage<?> submit(long demand) {
+
+            if (this.cancelled) {
+                return null;
+            }
+
+            try {
+
+                Submission<?> submission = this.operationFunction.apply(demand).subscribe(this, new CompletableFuture<>()).submit();
+                this.submission = submission;
+
+                // cancel() may have missed the submission
+                if (this.cancelled) {
+                    submission.cancel();
+                }
+
+                // release the pipeline slot right away, completion is subject to downstream demand
+                return CompletableFuture.completedFuture(null);
+            } catch (RuntimeException e) {
+
+                this.done = true;
+                this.delegate.onError(AdbaUtils.exceptionMapper().apply(e));
+                return null;
+            }
         }
     }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import reactor.util.annotation.Nullable;
+
+/**
+ * {@link AdbaException} signalling that an operation did not complete within its
+ * {@link jdk.incubator.sql2.Operation#timeout(java.time.Duration) timeout}.
+ *
+ * @author Mark Paluch
+ * @see AdbaStatement#timeout(java.time.Duration)
+ * @see AdbaOptions#withStatementTimeout(java.time.Duration)
+ */
+public final class AdbaTimeoutException extends AdbaException {
+
+    /**
+     * Create a new {@link AdbaTimeoutException}.
+     *
+     * @param reason    exception message.
+     * @param sqlState  vendor-specific SQL state.
+     * @param errorCode vendor-specific error code.
+     * @param sqlString causing SQL string.
+     * @param position  position within the causing SQL string.
+     * @param cause     the cause.
+     */
+    public AdbaTimeoutException(@Nullable String reason, @Nullable String sqlState, int errorCode,
+                                @Nullable String sqlString, int position, @Nullable Throwable cause) {
+        super(reason, sqlState, errorCode, sqlString, position, cause);
+    }
+
+    /**
+     * Create a new {@link AdbaTimeoutException}.
+     *
+     * @param cause the cause.
+     */
+    public AdbaTimeoutException(Throwable cause) {
+        super(cause);
+    }
+}
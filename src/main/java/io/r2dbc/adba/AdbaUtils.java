@@ -20,7 +20,9 @@ import jdk.incubator.sql2.SqlException;
 import jdk.incubator.sql2.Submission;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -31,14 +33,29 @@ import java.util.function.Supplier;
  */
 class AdbaUtils {
 
+    /**
+     * SQLSTATE class for timeouts as defined by SQL/CLI ({@code HYT00}: timeout expired, {@code HYT01}: connection
+     * timeout expired).
+     */
+    private static final String TIMEOUT_SQL_STATE_CLASS = "HYT";
+
     /**
      * Mapping function to translate ADBA exceptions into R2DBC exceptions.
      */
     private static final Function<Throwable, AdbaException> EXCEPTION_MAPPER = throwable -> {
 
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+
         if (throwable instanceof SqlException) {
             SqlException ex = (SqlException) throwable;
 
+            if (isTimeout(ex)) {
+                return new AdbaTimeoutException(ex.getMessage(), ex.getSqlState(), ex.getVendorCode(),
+                        ex.getSqlString(), ex.getPosition(), ex);
+            }
+
             return new AdbaException(ex.getMessage(), ex.getSqlState(), ex.getVendorCode(), ex.getSqlString(),
                     ex.getPosition(), ex);
         }
@@ -47,6 +64,10 @@ class AdbaUtils {
             return (AdbaException) throwable;
         }
 
+        if (throwable instanceof TimeoutException) {
+            return new AdbaTimeoutException(throwable);
+        }
+
         return new AdbaException(throwable);
     };
 
@@ -99,4 +120,15 @@ class AdbaUtils {
         return EXCEPTION_MAPPER;
 
     }
+
+    /**
+     * Check whether {@link SqlException} reports an expired {@link Operation#timeout(java.time.Duration) timeout}
+     * either through its SQLSTATE or through a {@link TimeoutException} cause.
+     */
+    private static boolean isTimeout(SqlException ex) {
+
+        String sqlState = ex.getSqlState();
+
+        return (sqlState != null && sqlState.startsWith(TIMEOUT_SQL_STATE_CLASS)) || ex.getCause() instanceof TimeoutException;
+    }
 }
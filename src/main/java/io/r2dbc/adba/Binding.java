@@ -17,52 +17,110 @@ package io.r2dbc.adba;
 
 import jdk.incubator.sql2.AdbaType;
 import jdk.incubator.sql2.ParameterizedOperation;
-import jdk.incubator.sql2.SqlClob;
 import jdk.incubator.sql2.SqlType;
+import reactor.core.publisher.Mono;
 import reactor.util.annotation.Nullable;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
 
 /**
- * Value object holding the parameter binding for a {@link io.r2dbc.spi.Statement}.
+ * Value object holding the parameter binding for a {@link io.r2dbc.spi.Statement}. Index-based parameters are stored in
+ * a dense slot array. Primitive values are kept unboxed in a {@code long[]} and boxed only when binding to the
+ * {@link ParameterizedOperation}. Parameter names for index-based parameters are obtained from a precomputed table.
  *
  * @author Mark Paluch
  */
 class Binding {
 
-    private final static Map<Class<?>, AdbaType> typeMap = new LinkedHashMap<>();
+    /**
+     * Number of precomputed index-based parameter names.
+     */
+    private static final int INDEX_NAME_CACHE_SIZE = 256;
+
+    private static final String[] INDEX_NAMES = new String[INDEX_NAME_CACHE_SIZE];
+
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    private static final long[] EMPTY_PRIMITIVES = new long[0];
+
+    private static final byte[] EMPTY_KINDS = new byte[0];
+
+    private static final byte UNSET = 0;
+    private static final byte NULL = 1;
+    private static final byte OBJECT = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte BYTE = 4;
+    private static final byte CHAR = 5;
+    private static final byte SHORT = 6;
+    private static final byte INT = 7;
+    private static final byte LONG = 8;
+    private static final byte FLOAT = 9;
+    private static final byte DOUBLE = 10;
 
     static {
 
-        for (AdbaType adbaType : AdbaType.values()) {
-            typeMap.put(adbaType.getJavaType(), adbaType);
+        for (int i = 0; i < INDEX_NAMES.length; i++) {
+            INDEX_NAMES[i] = Integer.toString(i);
         }
+    }
 
-        typeMap.put(Void.class, AdbaType.NULL);
-        typeMap.put(String.class, AdbaType.VARCHAR);
-        typeMap.put(Object.class, AdbaType.OTHER);
-        typeMap.put(Double.class, AdbaType.DOUBLE);
-        typeMap.put(SqlClob.class, AdbaType.CLOB);
-        typeMap.put(byte[].class, AdbaType.BINARY);
+    private Object[] values = EMPTY_VALUES;
+    private long[] primitives = EMPTY_PRIMITIVES;
+    private byte[] kinds = EMPTY_KINDS;
+    private int size;
+
+    private @Nullable
+    Map<String, Object> byName;
+
+    /**
+     * Creates a new, empty {@link Binding}.
+     */
+    Binding() {
     }
 
-    private final SortedMap<Integer, Optional<Object>> byIndex = new TreeMap<>();
-    private final Map<String, Optional<Object>> byName = new LinkedHashMap<>();
+    /**
+     * Creates a new {@link Binding} with slots pre-allocated for {@code expectedParameters} index-based parameters.
+     *
+     * @param expectedParameters number of expected index-based parameters.
+     */
+    Binding(int expectedParameters) {
+
+        if (expectedParameters > 0) {
+            this.values = new Object[expectedParameters];
+            this.primitives = new long[expectedParameters];
+            this.kinds = new byte[expectedParameters];
+        }
+    }
 
     /**
      * Add a name-based parameter binding.
      *
      * @param identifier name of the parameter to bind, must not be {@literal null} or empty.
-     * @param value      the value. Can be {@link Optional#empty()} to bind a {@literal null} value. Must not be
-     *                   {@literal null}.
+     * @param value      the value. Must not be {@literal null}.
      */
-    void add(String identifier, Optional<Object> value) {
+    void add(String identifier, Object value) {
 
         Assert.hasText(identifier, "Identifier must not be empty!");
-        Assert.notNull(value, "Optional must not be null!");
+        Assert.notNull(value, "Value must not be null!");
 
-        byName.put(identifier, value);
+        getByName().put(identifier, value);
+    }
+
+    /**
+     * Add a name-based {@literal null} parameter binding.
+     *
+     * @param identifier name of the parameter to bind, must not be {@literal null} or empty.
+     */
+    void addNull(String identifier) {
+
+        Assert.hasText(identifier, "Identifier must not be empty!");
+
+        getByName().put(identifier, null);
     }
 
     /**
@@ -70,66 +128,262 @@ class Binding {
      * bind (zero-based index).
      *
      * @param index index of the parameter to bind.
-     * @param value the value. Can be {@link Optional#empty()} to bind a {@literal null} value. Must not be
-     *              {@literal null}.
+     * @param value the value. Must not be {@literal null}.
      */
-    void add(int index, Optional<Object> value) {
+    void add(int index, Object value) {
 
-        Assert.isTrue(index >= 0, "Index must be greater or equal to zero!");
-        Assert.notNull(value, "Optional must not be null!");
+        Assert.notNull(value, "Value must not be null!");
 
-        byIndex.put(index, value);
+        int slot = slot(index);
+        this.values[slot] = value;
+        this.kinds[slot] = OBJECT;
     }
 
     /**
-     * Bind registered parameters to a {@link ParameterizedOperation}.
+     * Add a index-based {@literal null} parameter binding.
+     *
+     * @param index index of the parameter to bind.
+     */
+    void addNull(int index) {
+
+        int slot = slot(index);
+        this.values[slot] = null;
+        this.kinds[slot] = NULL;
+    }
+
+    void add(int index, boolean value) {
+        setPrimitive(index, BOOLEAN, value ? 1 : 0);
+    }
+
+    void add(int index, byte value) {
+        setPrimitive(index, BYTE, value);
+    }
+
+    void add(int index, char value) {
+        setPrimitive(index, CHAR, value);
+    }
+
+    void add(int index, short value) {
+        setPrimitive(index, SHORT, value);
+    }
+
+    void add(int index, int value) {
+        setPrimitive(index, INT, value);
+    }
+
+    void add(int index, long value) {
+        setPrimitive(index, LONG, value);
+    }
+
+    void add(int index, float value) {
+        setPrimitive(index, FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    void add(int index, double value) {
+        setPrimitive(index, DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * @return the number of index-based parameter slots, including unbound gaps.
+     */
+    int getParameterCount() {
+        return this.size;
+    }
+
+    /**
+     * Bind registered parameters to a {@link ParameterizedOperation} using default type mappings.
      *
      * @param bindTo the bind target, must not be {@literal null}.
      * @return the bound {@link ParameterizedOperation}.
      */
-    @SuppressWarnings("unchecked")
     <T extends ParameterizedOperation<?>> T bind(T bindTo) {
+        return bind(bindTo, SqlTypeResolver.create());
+    }
+
+    /**
+     * Bind registered parameters to a {@link ParameterizedOperation}.
+     *
+     * @param bindTo       the bind target, must not be {@literal null}.
+     * @param typeResolver the resolver to determine {@link SqlType SQL types} of parameter values, must not be
+     *                     {@literal null}.
+     * @return the bound {@link ParameterizedOperation}.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends ParameterizedOperation<?>> T bind(T bindTo, SqlTypeResolver typeResolver) {
 
         T bound = bindTo;
-        for (Entry<String, Optional<Object>> entry : byName.entrySet()) {
 
-            Optional<Object> value = entry.getValue();
+        if (this.byName != null) {
+            for (Entry<String, Object> entry : this.byName.entrySet()) {
 
-            String key = entry.getKey();
-            Object valueToBind = value.orElse(null);
-            bound = (T) bound.set(key, valueToBind, determineType(valueToBind));
+                bound = set(bound, entry.getKey(), entry.getValue(), typeResolver);
+            }
         }
 
-        for (Entry<Integer, Optional<Object>> entry : byIndex.entrySet()) {
+        for (int i = 0; i < this.size; i++) {
 
-            Optional<Object> value = entry.getValue();
+            byte kind = this.kinds[i];
+            if (kind == UNSET) {
+                continue;
+            }
 
-            String key = entry.getKey().toString();
-            Object valueToBind = value.orElse(null);
-            bound = (T) bound.set(key, valueToBind, determineType(valueToBind));
+            bound = kind == OBJECT ? set(bound, indexName(i), this.values[i], typeResolver) : (T) bound.set(indexName(i), getValue(i), getType(i, typeResolver));
         }
 
         return bound;
     }
 
-    static SqlType determineType(@Nullable Object valueToBind) {
+    /**
+     * Bind a single parameter. {@link StreamParameter Streamed values} are bound as the driver-created large object
+     * they were written into. {@link Mono} and {@link CompletionStage} values are bound as future parameters so the
+     * operation can be submitted before the value is known; a {@link Mono} is subscribed when binding and an empty
+     * {@link Mono} binds {@literal null}.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends ParameterizedOperation<?>> T set(T bindTo, String name, @Nullable Object value, SqlTypeResolver typeResolver) {
+
+        if (value instanceof StreamParameter) {
+
+            StreamParameter parameter = (StreamParameter) value;
+            return (T) bindTo.set(name, parameter.getValue(), parameter.getSqlType());
+        }
+
+        if (value instanceof Mono) {
+            return (T) bindTo.set(name, ((Mono<?>) value).toFuture());
+        }
 
-        if (valueToBind == null) {
-            return AdbaType.NULL;
+        if (value instanceof CompletionStage) {
+            return (T) bindTo.set(name, (CompletionStage<?>) value);
         }
 
-        for (Entry<Class<?>, AdbaType> entry : typeMap.entrySet()) {
-            if (entry.getKey().equals(valueToBind.getClass())) {
-                return entry.getValue();
+        return (T) bindTo.set(name, value, typeResolver.getType(value));
+    }
+
+    /**
+     * Apply the {@link BiConsumer action} to each registered parameter. Name-based parameters are reported before
+     * index-based ones, index-based parameters are reported in index order using their {@link String} representation.
+     *
+     * @param action the callback accepting the parameter name and its value. The value can be {@literal null}.
+     */
+    void forEach(BiConsumer<String, Object> action) {
+
+        if (this.byName != null) {
+            for (Entry<String, Object> entry : this.byName.entrySet()) {
+                action.accept(entry.getKey(), entry.getValue());
             }
         }
 
-        for (Entry<Class<?>, AdbaType> entry : typeMap.entrySet()) {
-            if (entry.getKey() != Object.class && entry.getKey().isInstance(valueToBind)) {
-                return entry.getValue();
+        for (int i = 0; i < this.size; i++) {
+            if (this.kinds[i] != UNSET) {
+                action.accept(indexName(i), getValue(i));
             }
         }
+    }
 
-        return AdbaType.OTHER;
+    /**
+     * Return the parameter name for an index-based parameter.
+     *
+     * @param index zero-based parameter index.
+     * @return the parameter name.
+     */
+    static String indexName(int index) {
+        return index < INDEX_NAME_CACHE_SIZE ? INDEX_NAMES[index] : Integer.toString(index);
+    }
+
+    static SqlType determineType(@Nullable Object valueToBind) {
+        return SqlTypeResolver.create().getType(valueToBind);
+    }
+
+    private Map<String, Object> getByName() {
+
+        if (this.byName == null) {
+            this.byName = new LinkedHashMap<>();
+        }
+
+        return this.byName;
+    }
+
+    private void setPrimitive(int index, byte kind, long value) {
+
+        int slot = slot(index);
+        this.values[slot] = null;
+        this.primitives[slot] = value;
+        this.kinds[slot] = kind;
+    }
+
+    /**
+     * Ensure capacity for the slot at {@code index}.
+     *
+     * @param index zero-based parameter index.
+     * @return the slot index.
+     */
+    private int slot(int index) {
+
+        Assert.isTrue(index >= 0, "Index must be greater or equal to zero!");
+
+        if (index >= this.kinds.length) {
+
+            int capacity = Math.max(index + 1, this.kinds.length * 2);
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.primitives = Arrays.copyOf(this.primitives, capacity);
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+        }
+
+        if (index >= this.size) {
+            this.size = index + 1;
+        }
+
+        return index;
+    }
+
+    @Nullable
+    private Object getValue(int slot) {
+
+        long primitive = this.primitives[slot];
+
+        switch (this.kinds[slot]) {
+            case BOOLEAN:
+                return primitive != 0;
+            case BYTE:
+                return (byte) primitive;
+            case CHAR:
+                return (char) primitive;
+            case SHORT:
+                return (short) primitive;
+            case INT:
+                return (int) primitive;
+            case LONG:
+                return primitive;
+            case FLOAT:
+                return Float.intBitsToFloat((int) primitive);
+            case DOUBLE:
+                return Double.longBitsToDouble(primitive);
+            default:
+                return this.values[slot];
+        }
+    }
+
+    private SqlType getType(int slot, SqlTypeResolver typeResolver) {
+
+        switch (this.kinds[slot]) {
+            case NULL:
+                return AdbaType.NULL;
+            case BOOLEAN:
+                return typeResolver.getTypeFor(Boolean.class);
+            case BYTE:
+                return typeResolver.getTypeFor(Byte.class);
+            case SHORT:
+                return typeResolver.getTypeFor(Short.class);
+            case INT:
+                return typeResolver.getTypeFor(Integer.class);
+            case LONG:
+                return typeResolver.getTypeFor(Long.class);
+            case FLOAT:
+                return typeResolver.getTypeFor(Float.class);
+            case DOUBLE:
+                return typeResolver.getTypeFor(Double.class);
+            default:
+                return typeResolver.getType(getValue(slot));
+        }
     }
 }
@@ -16,10 +16,15 @@
 package io.r2dbc.adba;
 
 import io.r2dbc.spi.Statement;
+import jdk.incubator.sql2.ArrayRowCountOperation;
 import reactor.util.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.stream.Stream;
 
 /**
@@ -28,9 +33,25 @@ import java.util.stream.Stream;
 class Bindings {
 
     private final List<Binding> bindings = new ArrayList<>();
+
+    private final int expectedParameters;
+
     private @Nullable
     Binding current;
 
+    Bindings() {
+        this(0);
+    }
+
+    /**
+     * Creates new {@link Bindings} pre-sizing the first {@link Binding} for {@code expectedParameters}.
+     *
+     * @param expectedParameters the expected number of parameters.
+     */
+    Bindings(int expectedParameters) {
+        this.expectedParameters = expectedParameters;
+    }
+
     @Override
     public String toString() {
         return "Bindings{" + "bindings=" + this.bindings + ", current=" + this.current + '}';
@@ -42,7 +63,7 @@ class Bindings {
 
     Binding getCurrent() {
         if (this.current == null) {
-            this.current = new Binding();
+            this.current = this.bindings.isEmpty() ? new Binding(this.expectedParameters) : new Binding(this.bindings.get(this.bindings.size() - 1).getParameterCount());
             this.bindings.add(this.current);
         }
 
@@ -52,4 +73,75 @@ class Bindings {
     Stream<Binding> stream() {
         return this.bindings.stream();
     }
+
+    /**
+     * @return the number of parameters bound by the first binding set. {@literal 0} if there are no bindings.
+     */
+    int getParameterCount() {
+        return this.bindings.isEmpty() ? 0 : this.bindings.get(0).getParameterCount();
+    }
+
+    /**
+     * @return the number of parameter binding sets.
+     */
+    int size() {
+        return this.bindings.size();
+    }
+
+    /**
+     * Bind all registered parameter binding sets to an {@link ArrayRowCountOperation} using default type mappings.
+     *
+     * @param bindTo the bind target, must not be {@literal null}.
+     * @return the bound {@link ArrayRowCountOperation}.
+     * @throws IllegalStateException if the binding sets do not bind the same parameters.
+     * @see #bind(ArrayRowCountOperation, SqlTypeResolver)
+     */
+    <T extends ArrayRowCountOperation<?>> T bind(T bindTo) {
+        return bind(bindTo, SqlTypeResolver.create());
+    }
+
+    /**
+     * Bind all registered parameter binding sets to an {@link ArrayRowCountOperation}. Values are collected column-wise
+     * so that each parameter is bound to a {@link List} containing one value per binding set. All binding sets are
+     * required to bind the same parameters.
+     *
+     * @param bindTo       the bind target, must not be {@literal null}.
+     * @param typeResolver the resolver to determine SQL types of parameter values, must not be {@literal null}.
+     * @return the bound {@link ArrayRowCountOperation}.
+     * @throws IllegalStateException if the binding sets do not bind the same parameters.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends ArrayRowCountOperation<?>> T bind(T bindTo, SqlTypeResolver typeResolver) {
+
+        Map<String, List<Object>> columns = new LinkedHashMap<>();
+
+        for (int i = 0; i < this.bindings.size(); i++) {
+
+            int set = i;
+            this.bindings.get(i).forEach((identifier, value) -> {
+
+                List<Object> values = columns.computeIfAbsent(identifier, it -> new ArrayList<>(this.bindings.size()));
+
+                if (values.size() != set) {
+                    throw new IllegalStateException(String.format("Parameter %s is not bound in all binding sets", identifier));
+                }
+
+                values.add(value);
+            });
+        }
+
+        T bound = bindTo;
+        for (Entry<String, List<Object>> entry : columns.entrySet()) {
+
+            List<Object> values = entry.getValue();
+
+            if (values.size() != this.bindings.size()) {
+                throw new IllegalStateException(String.format("Parameter %s is not bound in all binding sets", entry.getKey()));
+            }
+
+            bound = (T) bound.set(entry.getKey(), values, typeResolver.getType(values.stream().filter(Objects::nonNull).findFirst().orElse(null)));
+        }
+
+        return bound;
+    }
 }
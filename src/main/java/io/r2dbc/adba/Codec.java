@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.SqlType;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Strategy to select a {@link ColumnDecoder} for a column of a given {@link SqlType} and a requested Java type. Codecs
+ * are consulted once per column and requested type of a result; the selected {@link ColumnDecoder} is cached with the
+ * {@link io.r2dbc.spi.RowMetadata row metadata} and applied to all rows of the result. Registered codecs take
+ * precedence over the built-in codecs.
+ *
+ * <pre class="code">
+ * AdbaOptions options = AdbaOptions.create().withCodec((columnType, type) -&gt; type == Money.class ? column -&gt; … : null);
+ * </pre>
+ *
+ * @author Mark Paluch
+ * @see AdbaOptions#withCodec(Codec)
+ */
+@FunctionalInterface
+public interface Codec {
+
+    /**
+     * Select a {@link ColumnDecoder} to decode values of a column into {@code type}.
+     *
+     * @param columnType the {@link SqlType} of the column. Can be {@literal null} if the driver does not report a type.
+     * @param type       the requested Java type, must not be {@literal null}.
+     * @return the {@link ColumnDecoder} or {@literal null} if this {@link Codec} cannot decode the column into
+     * {@code type}.
+     */
+    @Nullable
+    ColumnDecoder<?> getDecoder(@Nullable SqlType columnType, Class<?> type);
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.Result;
+import jdk.incubator.sql2.SqlType;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.util.annotation.Nullable;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Registry of {@link Codec codecs} to select a {@link ColumnDecoder} for a column and requested type. Registered codecs
+ * are consulted in reverse registration order before the built-in codecs. Built-in codecs decode large objects as
+ * {@link Publisher}, enums and {@link UUID}s from character columns, and {@link Instant} and {@link ZonedDateTime} from
+ * {@code TIMESTAMP WITH TIME ZONE} columns. All other types are decoded by the driver through
+ * {@link Result.Column#get(Class)}.
+ * <p>
+ * {@link Codecs} is immutable; {@link #withCodec(Codec)} returns a new instance.
+ *
+ * @author Mark Paluch
+ */
+class Codecs {
+
+    private static final ColumnDecoder<Object> OBJECT = Result.Column::get;
+
+    private static final ColumnDecoder<Publisher<?>> STREAM = LobStreams::stream;
+
+    private static final ColumnDecoder<UUID> UUID_FROM_STRING = column -> {
+
+        String value = column.get(String.class);
+        return value != null ? UUID.fromString(value) : null;
+    };
+
+    private static final ColumnDecoder<Instant> INSTANT = column -> {
+
+        OffsetDateTime value = column.get(OffsetDateTime.class);
+        return value != null ? value.toInstant() : null;
+    };
+
+    private static final ColumnDecoder<ZonedDateTime> ZONED_DATE_TIME = column -> {
+
+        OffsetDateTime value = column.get(OffsetDateTime.class);
+        return value != null ? value.toZonedDateTime() : null;
+    };
+
+    private static final Codecs DEFAULT = new Codecs(Collections.emptyList());
+
+    private final List<Codec> codecs;
+
+    private Codecs(List<Codec> codecs) {
+        this.codecs = codecs;
+    }
+
+    /**
+     * Returns the {@link Codecs} using built-in codecs only.
+     *
+     * @return the default {@link Codecs}.
+     */
+    static Codecs create() {
+        return DEFAULT;
+    }
+
+    /**
+     * Create new {@link Codecs} considering {@code codec} before all previously registered codecs.
+     *
+     * @param codec must not be {@literal null}.
+     * @return new {@link Codecs} with {@code codec} registered.
+     */
+    Codecs withCodec(Codec codec) {
+
+        Assert.notNull(codec, "Codec must not be null!");
+
+        List<Codec> codecs = new ArrayList<>(this.codecs.size() + 1);
+        codecs.add(codec);
+        codecs.addAll(this.codecs);
+
+        return new Codecs(Collections.unmodifiableList(codecs));
+    }
+
+    /**
+     * Select the {@link ColumnDecoder} to decode values of a column of {@code columnType} into {@code type}.
+     *
+     * @param columnType the {@link SqlType} of the column. Can be {@literal null}.
+     * @param type       the requested type, must not be {@literal null}.
+     * @return the {@link ColumnDecoder} for the column and requested type.
+     */
+    ColumnDecoder<?> getDecoder(@Nullable SqlType columnType, Class<?> type) {
+
+        for (Codec codec : this.codecs) {
+
+            ColumnDecoder<?> decoder = codec.getDecoder(columnType, type);
+            if (decoder != null) {
+                return decoder;
+            }
+        }
+
+        return getBuiltinDecoder(columnType, type);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ColumnDecoder<?> getBuiltinDecoder(@Nullable SqlType columnType, Class<?> type) {
+
+        if (type == Object.class) {
+            return OBJECT;
+        }
+
+        if (type == Publisher.class || type == Flux.class) {
+            return STREAM;
+        }
+
+        if (type.isEnum() && isCharacter(columnType)) {
+
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return column -> {
+
+                String value = column.get(String.class);
+                return value != null ? Enum.valueOf(enumType, value) : null;
+            };
+        }
+
+        if (type == UUID.class && isCharacter(columnType)) {
+            return UUID_FROM_STRING;
+        }
+
+        if (columnType == AdbaType.TIMESTAMP_WITH_TIME_ZONE) {
+
+            if (type == Instant.class) {
+                return INSTANT;
+            }
+
+            if (type == ZonedDateTime.class) {
+                return ZONED_DATE_TIME;
+            }
+        }
+
+        return column -> column.get(type);
+    }
+
+    private static boolean isCharacter(@Nullable SqlType columnType) {
+        return columnType == AdbaType.CHAR || columnType == AdbaType.VARCHAR || columnType == AdbaType.LONGVARCHAR
+                || columnType == AdbaType.NCHAR || columnType == AdbaType.NVARCHAR || columnType == AdbaType.LONGNVARCHAR;
+    }
+
+    @Override
+    public String toString() {
+        return "Codecs{" + "codecs=" + this.codecs + '}';
+    }
+}
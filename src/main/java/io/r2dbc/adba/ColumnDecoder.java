@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.Result;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Decodes the value of a {@link Result.Column} into a specific Java type. A {@link ColumnDecoder} is selected once per
+ * column and requested type by a {@link Codec} and then applied to the column of each row without further type
+ * checks.
+ *
+ * @param <T> the decoded type.
+ * @author Mark Paluch
+ * @see Codec
+ */
+@FunctionalInterface
+public interface ColumnDecoder<T> {
+
+    /**
+     * Decode the value of {@code column}.
+     *
+     * @param column the column positioned at the value to decode, must not be {@literal null}.
+     * @return the decoded value. Can be {@literal null}.
+     */
+    @Nullable
+    T decode(Result.Column column);
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * Strategy to rewrite SQL so that a data-modifying statement returns generated values as rows. Rewritten statements are
+ * executed as a single {@link jdk.incubator.sql2.ParameterizedRowPublisherOperation row operation} so that generated
+ * values and update counts are obtained in one round trip. Implementations are dialect-specific; the default
+ * {@link #returningClause() rewriter} appends a {@code RETURNING} clause.
+ *
+ * <pre class="code">
+ * AdbaOptions options = AdbaOptions.create().withGeneratedValuesRewriter((sql, columns) -&gt; …);
+ * </pre>
+ *
+ * @author Mark Paluch
+ * @see AdbaStatement#returnGeneratedValues(String...)
+ */
+@FunctionalInterface
+public interface GeneratedValuesRewriter {
+
+    /**
+     * Rewrite {@code sql} to return generated values.
+     *
+     * @param sql     the SQL to rewrite, must not be {@literal null}.
+     * @param columns names of the columns to return. An empty list to return all generated values.
+     * @return the rewritten SQL. {@code sql} if the statement already returns generated values as rows.
+     * {@literal null} if the statement cannot be rewritten.
+     * @throws IllegalArgumentException if a column name is not supported.
+     */
+    @Nullable
+    String rewrite(String sql, List<String> columns);
+
+    /**
+     * Returns a {@link GeneratedValuesRewriter} that appends a {@code RETURNING} clause to {@code INSERT},
+     * {@code UPDATE}, and {@code DELETE} statements as supported by PostgreSQL, H2, and MariaDB. Statements that
+     * already contain a {@code RETURNING} clause are left unchanged. Column names must be plain or double-quoted SQL
+     * identifiers.
+     *
+     * @return the {@code RETURNING} clause {@link GeneratedValuesRewriter}.
+     */
+    static GeneratedValuesRewriter returningClause() {
+        return ReturningClauseRewriter.INSTANCE;
+    }
+}
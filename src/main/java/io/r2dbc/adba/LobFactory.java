@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.Operation;
+import jdk.incubator.sql2.OperationGroup;
+import jdk.incubator.sql2.SqlBlob;
+import jdk.incubator.sql2.SqlClob;
+
+/**
+ * Strategy to create empty driver-side large objects. ADBA does not define an operation to create a large object, so
+ * creation is dialect-specific and there is no default: streamed parameter values can only be bound once a
+ * {@link LobFactory} is configured. Each streamed parameter value is written into a large object created through
+ * {@link LobFactory} which costs an additional round trip before the statement is executed. Created large objects
+ * must be writable, e.g. temporary large objects.
+ *
+ * <pre class="code">
+ * AdbaOptions options = AdbaOptions.create().withLobFactory(LobFactory.query("SELECT lo_blob()", "SELECT lo_clob()"));
+ * </pre>
+ *
+ * @author Mark Paluch
+ * @see AdbaOptions#withLobFactory(LobFactory)
+ */
+public interface LobFactory {
+
+    /**
+     * Create an {@link Operation} that creates an empty {@link SqlBlob}.
+     *
+     * @param group the {@link OperationGroup} to create the operation from, must not be {@literal null}.
+     * @return the {@link Operation} emitting the created {@link SqlBlob}.
+     */
+    Operation<SqlBlob> blobOperation(OperationGroup<Object, Object> group);
+
+    /**
+     * Create an {@link Operation} that creates an empty {@link SqlClob}.
+     *
+     * @param group the {@link OperationGroup} to create the operation from, must not be {@literal null}.
+     * @return the {@link Operation} emitting the created {@link SqlClob}.
+     */
+    Operation<SqlClob> clobOperation(OperationGroup<Object, Object> group);
+
+    /**
+     * Returns a {@link LobFactory} that obtains large objects from the first column of the first row of a query.
+     *
+     * @param blobQuery query returning an empty BLOB, must not be {@literal null}.
+     * @param clobQuery query returning an empty CLOB, must not be {@literal null}.
+     * @return the query-based {@link LobFactory}.
+     */
+    static LobFactory query(String blobQuery, String clobQuery) {
+        return QueryLobFactory.create(blobQuery, clobQuery);
+    }
+}
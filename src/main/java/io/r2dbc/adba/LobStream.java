@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.SqlType;
+import org.reactivestreams.Publisher;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parameter value declaring a {@link Publisher} as content of a large object. Binding a {@link Publisher} directly
+ * determines the large object type from its first element; a {@link LobStream} declares the type upfront and is
+ * required for publishers that may complete without emitting.
+ *
+ * <pre class="code">
+ * statement.bind("data", LobStream.blob(Flux.just(ByteBuffer.wrap(bytes))));
+ * </pre>
+ *
+ * @author Mark Paluch
+ * @see LobFactory
+ */
+public final class LobStream {
+
+    private final Publisher<?> publisher;
+
+    private final SqlType sqlType;
+
+    private LobStream(Publisher<?> publisher, SqlType sqlType) {
+        this.publisher = publisher;
+        this.sqlType = sqlType;
+    }
+
+    /**
+     * Create a {@link LobStream} writing {@code content} into a BLOB.
+     *
+     * @param content must not be {@literal null}.
+     * @return the {@link LobStream} for {@code content}.
+     */
+    public static LobStream blob(Publisher<? extends ByteBuffer> content) {
+
+        Assert.notNull(content, "Content must not be null!");
+
+        return new LobStream(content, AdbaType.BLOB);
+    }
+
+    /**
+     * Create a {@link LobStream} writing {@code content} into a CLOB.
+     *
+     * @param content must not be {@literal null}.
+     * @return the {@link LobStream} for {@code content}.
+     */
+    public static LobStream clob(Publisher<? extends CharSequence> content) {
+
+        Assert.notNull(content, "Content must not be null!");
+
+        return new LobStream(content, AdbaType.CLOB);
+    }
+
+    Publisher<?> getPublisher() {
+        return this.publisher;
+    }
+
+    SqlType getSqlType() {
+        return this.sqlType;
+    }
+
+    @Override
+    public String toString() {
+        return "LobStream{" + "sqlType=" + this.sqlType + '}';
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.Result;
+import jdk.incubator.sql2.SqlBlob;
+import jdk.incubator.sql2.SqlClob;
+import jdk.incubator.sql2.SqlType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utilities to stream large objects ({@link SqlBlob BLOB} and {@link SqlClob CLOB} columns) in chunks. Chunks are read
+ * only when requested by the downstream subscriber and emitted right away so that memory per stream is bounded by a
+ * single chunk regardless of the size of the large object. The large object is released once the stream terminates or
+ * is cancelled.
+ *
+ * @author Mark Paluch
+ */
+class LobStreams {
+
+    /**
+     * Default chunk size in bytes or characters.
+     */
+    static final int CHUNK_SIZE = 8192;
+
+    private LobStreams() {
+    }
+
+    /**
+     * Create a {@link Flux} streaming the value of {@code column}. {@link AdbaType#BLOB} columns are streamed as
+     * {@link ByteBuffer}s, {@link AdbaType#CLOB} and {@link AdbaType#NCLOB} columns as {@link CharSequence}s. Other
+     * columns emit their value as a single element.
+     *
+     * @param column must not be {@literal null}.
+     * @return a {@link Flux} streaming the column value.
+     */
+    static Flux<?> stream(Result.Column column) {
+
+        Assert.notNull(column, "Column must not be null!");
+
+        SqlType sqlType = column.sqlType();
+
+        if (sqlType == AdbaType.BLOB) {
+
+            SqlBlob blob = column.get(SqlBlob.class);
+            return blob != null ? read(blob, CHUNK_SIZE) : Flux.empty();
+        }
+
+        if (sqlType == AdbaType.CLOB || sqlType == AdbaType.NCLOB) {
+
+            SqlClob clob = column.get(SqlClob.class);
+            return clob != null ? read(clob, CHUNK_SIZE) : Flux.empty();
+        }
+
+        Object value = column.get();
+
+        if (value instanceof byte[]) {
+            return Flux.just(ByteBuffer.wrap((byte[]) value));
+        }
+
+        return Flux.justOrEmpty(value);
+    }
+
+    /**
+     * Create a {@link Flux} reading {@link SqlBlob} through its {@link SqlBlob#getReadChannel() read channel} in chunks
+     * of {@code chunkSize} bytes. At most one read is outstanding at a time.
+     *
+     * @param blob      must not be {@literal null}.
+     * @param chunkSize the maximum number of bytes per emitted {@link ByteBuffer}.
+     * @return a {@link Flux} emitting the content of {@code blob}.
+     */
+    static Flux<ByteBuffer> read(SqlBlob blob, int chunkSize) {
+
+        Assert.notNull(blob, "SqlBlob must not be null!");
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero!");
+
+        return Flux.create(sink -> {
+
+            ChannelReader reader = new ChannelReader(blob.getReadChannel(), sink, chunkSize);
+
+            sink.onRequest(n -> reader.drain());
+            sink.onDispose(() -> {
+
+                reader.close();
+                blob.closeOperation().submit();
+            });
+        });
+    }
+
+    /**
+     * Create a {@link Flux} reading {@link SqlClob} through its {@link SqlClob#getReader() reader} in chunks of
+     * {@code chunkSize} characters. A chunk is read for each requested element. {@link SqlClob#getReader()} returns a
+     * blocking {@link Reader}, so reads are performed on the {@link Schedulers#elastic() elastic scheduler} to not block
+     * the subscribing thread (typically a driver or event loop thread).
+     *
+     * @param clob      must not be {@literal null}.
+     * @param chunkSize the maximum number of characters per emitted {@link CharSequence}.
+     * @return a {@link Flux} emitting the content of {@code clob}.
+     */
+    static Flux<CharSequence> read(SqlClob clob, int chunkSize) {
+
+        Assert.notNull(clob, "SqlClob must not be null!");
+        Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero!");
+
+        return Flux.<CharSequence, Reader>generate(clob::getReader, (reader, sink) -> {
+
+            char[] chunk = new char[chunkSize];
+
+            try {
+
+                int read = reader.read(chunk);
+
+                if (read == -1) {
+                    sink.complete();
+                } else {
+                    sink.next(CharBuffer.wrap(chunk, 0, read));
+                }
+            } catch (IOException e) {
+                sink.error(e);
+            }
+
+            return reader;
+        }, reader -> {
+
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // ignore
+            } finally {
+                clob.closeOperation().submit();
+            }
+        }).subscribeOn(Schedulers.elastic()).onErrorMap(AdbaUtils.exceptionMapper());
+    }
+
+    /**
+     * Demand-driven reader for an {@link AsynchronousByteChannel}.
+     */
+    static class ChannelReader implements CompletionHandler<Integer, ByteBuffer> {
+
+        private final AsynchronousByteChannel channel;
+
+        private final FluxSink<ByteBuffer> sink;
+
+        private final int chunkSize;
+
+        private final AtomicBoolean reading = new AtomicBoolean();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean done;
+
+        ChannelReader(AsynchronousByteChannel channel, FluxSink<ByteBuffer> sink, int chunkSize) {
+            this.channel = channel;
+            this.sink = sink;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * Issue a read if there is demand and no read is outstanding.
+         */
+        void drain() {
+
+            if (this.wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+
+            for (; ; ) {
+
+                if (!this.done && this.sink.requestedFromDownstream() > 0 && !this.sink.isCancelled()
+                        && this.reading.compareAndSet(false, true)) {
+
+                    try {
+
+                        ByteBuffer buffer = ByteBuffer.allocate(this.chunkSize);
+                        this.channel.read(buffer, buffer, this);
+                    } catch (RuntimeException e) {
+                        failed(e, null);
+                    }
+                }
+
+                missed = this.wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void completed(Integer read, ByteBuffer buffer) {
+
+            if (read == -1) {
+
+                this.done = true;
+                this.sink.complete();
+                return;
+            }
+
+            if (read > 0) {
+
+                buffer.flip();
+                this.sink.next(buffer);
+            }
+
+            // allow the next read only after emitting to retain chunk order
+            this.reading.set(false);
+            drain();
+        }
+
+        @Override
+        public void failed(Throwable e, ByteBuffer buffer) {
+
+            this.done = true;
+            this.sink.error(AdbaUtils.exceptionMapper().apply(e));
+        }
+
+        void close() {
+
+            this.done = true;
+
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.Operation;
+import jdk.incubator.sql2.OperationGroup;
+import jdk.incubator.sql2.Submission;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Submits {@link Operation ADBA operations} of a single {@link jdk.incubator.sql2.Session} back to back without
+ * waiting for earlier operations to complete. The session executes operations in submission order so results are
+ * demultiplexed through each operation's own {@link Submission}.
+ * <p>
+ * Operations are submitted in the order they were {@link #enqueue(Supplier, Consumer) enqueued}. The number of
+ * operations in flight can be limited by a maximum depth; further operations are queued and submitted as earlier
+ * operations complete. A depth of {@literal 0} submits operations immediately.
+ * <p>
+ * Session commands that do not need a result of their own can be {@link #defer(Supplier) deferred}. Deferred tasks are
+ * held back and submitted along with the next enqueued task, occupying its slot, so they do not cost a round trip of
+ * their own. Their failures are reported to the task they were submitted along with.
+ *
+ * @author Mark Paluch
+ */
+class OperationPipeline {
+
+    private final int maxDepth;
+
+    private final Queue<Supplier<? extends CompletionStage<?>>> queue = new ConcurrentLinkedQueue<>();
+
+    private final Deque<Supplier<? extends CompletionStage<?>>> deferred = new ArrayDeque<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private OperationPipeline(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Creates a new {@link OperationPipeline} allowing up to {@code maxDepth} operations in flight.
+     *
+     * @param maxDepth maximum number of operations in flight, must be greater or equal to zero. {@literal 0} for no
+     *                 limit.
+     * @return the new {@link OperationPipeline}.
+     */
+    static OperationPipeline create(int maxDepth) {
+
+        Assert.isTrue(maxDepth >= 0, "Maximum depth must be greater or equal to zero!");
+
+        return new OperationPipeline(maxDepth);
+    }
+
+    /**
+     * Enqueue a submission task. The task is invoked once the pipeline has capacity and returns the
+     * {@link CompletionStage} that signals completion of the submitted work. Tasks that do not submit anything (e.g.
+     * because their subscriber cancelled meanwhile) return {@literal null}. Tasks are expected to handle their own
+     * exceptions.
+     * <p>
+     * {@link #defer(Supplier) Deferred tasks} are submitted right before {@code task}. Their failures are reported to
+     * {@code deferredErrorHandler}. If a deferred task fails to submit, the remaining deferred tasks and {@code task}
+     * are not invoked.
+     *
+     * @param task                 the submission task, must not be {@literal null}.
+     * @param deferredErrorHandler callback receiving failures of deferred tasks submitted along with {@code task}, must
+     *                             not be {@literal null}.
+     */
+    void enqueue(Supplier<? extends CompletionStage<?>> task, Consumer<? super Throwable> deferredErrorHandler) {
+
+        Assert.notNull(task, "Task must not be null!");
+        Assert.notNull(deferredErrorHandler, "Deferred error handler must not be null!");
+
+        synchronized (this.deferred) {
+
+            if (this.deferred.isEmpty()) {
+                this.queue.offer(task);
+            } else {
+
+                List<Supplier<? extends CompletionStage<?>>> deferred = new ArrayList<>(this.deferred);
+                this.deferred.clear();
+
+                this.queue.offer(() -> {
+
+                    for (Supplier<? extends CompletionStage<?>> deferredTask : deferred) {
+
+                        CompletionStage<?> completion;
+                        try {
+                            completion = deferredTask.get();
+                        } catch (RuntimeException e) {
+                            deferredErrorHandler.accept(e);
+                            return null;
+                        }
+
+                        if (completion != null) {
+                            completion.whenComplete((result, e) -> {
+
+                                if (e != null) {
+                                    deferredErrorHandler.accept(e);
+                                }
+                            });
+                        }
+                    }
+
+                    return task.get();
+                });
+            }
+        }
+
+        drain();
+    }
+
+    /**
+     * Defer a submission task until the next task is {@link #enqueue(Supplier, Consumer) enqueued}. Deferred tasks are
+     * invoked in the order they were deferred, right before the next task and without waiting for their completion.
+     * Failures of deferred tasks surface through the task submitted after them.
+     *
+     * @param task the submission task, must not be {@literal null}.
+     */
+    void defer(Supplier<? extends CompletionStage<?>> task) {
+
+        Assert.notNull(task, "Task must not be null!");
+
+        synchronized (this.deferred) {
+            this.deferred.offer(task);
+        }
+    }
+
+    /**
+     * Discard all deferred tasks that were not submitted yet.
+     *
+     * @return the number of discarded tasks.
+     */
+    int discardDeferred() {
+
+        synchronized (this.deferred) {
+
+            int discarded = this.deferred.size();
+            this.deferred.clear();
+
+            return discarded;
+        }
+    }
+
+    /**
+     * Remove {@code task} if it is the most recently deferred task and was not submitted yet.
+     *
+     * @param task the deferred task.
+     * @return {@literal true} if {@code task} was removed.
+     */
+    boolean undefer(Supplier<? extends CompletionStage<?>> task) {
+
+        synchronized (this.deferred) {
+
+            if (this.deferred.peekLast() == task) {
+                this.deferred.pollLast();
+                return true;
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Check whether {@code task} is the most recently deferred task and was not submitted yet.
+     *
+     * @param task the deferred task.
+     * @return {@literal true} if {@code task} is pending as the most recently deferred task.
+     */
+    boolean isLastDeferred(Supplier<? extends CompletionStage<?>> task) {
+
+        synchronized (this.deferred) {
+            return this.deferred.peekLast() == task;
+        }
+    }
+
+    /**
+     * Create a {@link Mono} that submits an {@link Operation ADBA operation} through this pipeline on subscription.
+     * Cancellation removes the operation from the queue or cancels its {@link Submission} if already submitted.
+     *
+     * @param operationSupplier the supplier function to obtain a {@link Operation}.
+     * @return {@link Mono} wrapper for a {@link Operation} supplier.
+     * @see AdbaUtils#submitLater(Supplier)
+     */
+    <T> Mono<T> submitLater(Supplier<? extends Operation<T>> operationSupplier) {
+
+        return Mono.<T>create(sink -> {
+
+            AtomicBoolean cancelled = new AtomicBoolean();
+            AtomicReference<Submission<T>> submissionRef = new AtomicReference<>();
+
+            sink.onCancel(() -> {
+
+                cancelled.set(true);
+
+                Submission<T> submission = submissionRef.get();
+                if (submission != null) {
+                    submission.cancel();
+                }
+            });
+
+            enqueue(() -> {
+
+                if (cancelled.get()) {
+                    return null;
+                }
+
+                Submission<T> submission;
+                try {
+                    submission = operationSupplier.get().submit();
+                } catch (RuntimeException e) {
+                    sink.error(e);
+                    return null;
+                }
+
+                submissionRef.set(submission);
+
+                if (cancelled.get()) {
+                    submission.cancel();
+                }
+
+                CompletionStage<T> completionStage = submission.getCompletionStage();
+                propagate(completionStage, sink);
+
+                return completionStage;
+            }, sink::error);
+        }).onErrorMap(AdbaUtils.exceptionMapper());
+    }
+
+    /**
+     * Create a {@link Mono} that invokes an asynchronous operation synchronized by {@link CompletionStage} through this
+     * pipeline on subscription.
+     *
+     * @param completionStageSupplier the supplier function to obtain a {@link CompletionStage}.
+     * @return {@link Mono} wrapper for a {@link CompletionStage} supplier.
+     * @see AdbaUtils#executeLater(Supplier)
+     */
+    <T> Mono<T> executeLater(Supplier<? extends CompletionStage<T>> completionStageSupplier) {
+
+        return Mono.<T>create(sink -> {
+
+            AtomicBoolean cancelled = new AtomicBoolean();
+            sink.onCancel(() -> cancelled.set(true));
+
+            enqueue(() -> {
+
+                if (cancelled.get()) {
+                    return null;
+                }
+
+                CompletionStage<T> completionStage;
+                try {
+                    completionStage = completionStageSupplier.get();
+                } catch (RuntimeException e) {
+                    sink.error(e);
+                    return null;
+                }
+
+                propagate(completionStage, sink);
+
+                return completionStage;
+            }, sink::error);
+        }).onErrorMap(AdbaUtils.exceptionMapper());
+    }
+
+    /**
+     * Create a {@link Mono} that submits an {@link OperationGroup} through this pipeline on subscription and emits the
+     * submitted group. The group occupies a slot in this pipeline until it completes; callers are required to
+     * {@link OperationGroup#close() close} the emitted group once all members are submitted. A group that is submitted
+     * after cancellation is closed right away.
+     *
+     * @param groupSupplier the supplier function to obtain a {@link OperationGroup}.
+     * @return {@link Mono} emitting the submitted {@link OperationGroup}.
+     */
+    <S, T> Mono<OperationGroup<S, T>> submitGroup(Supplier<? extends OperationGroup<S, T>> groupSupplier) {
+
+        return Mono.<OperationGroup<S, T>>create(sink -> {
+
+            AtomicBoolean cancelled = new AtomicBoolean();
+            sink.onCancel(() -> cancelled.set(true));
+
+            enqueue(() -> {
+
+                if (cancelled.get()) {
+                    return null;
+                }
+
+                OperationGroup<S, T> group;
+                Submission<T> submission;
+                try {
+                    group = groupSupplier.get();
+                    submission = group.submit();
+                } catch (RuntimeException e) {
+                    sink.error(e);
+                    return null;
+                }
+
+                if (cancelled.get()) {
+                    group.close();
+                } else {
+                    sink.success(group);
+                }
+
+                return submission.getCompletionStage();
+            }, sink::error);
+        }).onErrorMap(AdbaUtils.exceptionMapper());
+    }
+
+    private static <T> void propagate(CompletionStage<T> completionStage, MonoSink<T> sink) {
+
+        completionStage.whenComplete((result, e) -> {
+
+            if (e != null) {
+                sink.error(e);
+            } else if (result != null) {
+                sink.success(result);
+            } else {
+                sink.success();
+            }
+        });
+    }
+
+    /**
+     * @return the number of submitted operations that did not complete yet.
+     */
+    int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    /**
+     * @return the number of operations waiting for submission.
+     */
+    int getQueued() {
+        return this.queue.size();
+    }
+
+    /**
+     * @return the number of deferred tasks waiting for the next task.
+     */
+    int getDeferred() {
+
+        synchronized (this.deferred) {
+            return this.deferred.size();
+        }
+    }
+
+    private void drain() {
+
+        if (this.wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+
+        for (; ; ) {
+
+            while (this.maxDepth == 0 || this.inFlight.get() < this.maxDepth) {
+
+                Supplier<? extends CompletionStage<?>> task = this.queue.poll();
+
+                if (task == null) {
+                    break;
+                }
+
+                this.inFlight.incrementAndGet();
+
+                CompletionStage<?> completion = run(task);
+
+                if (completion == null) {
+                    this.inFlight.decrementAndGet();
+                    continue;
+                }
+
+                completion.whenComplete((result, e) -> {
+
+                    this.inFlight.decrementAndGet();
+                    drain();
+                });
+            }
+
+            missed = this.wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    @Nullable
+    private static CompletionStage<?> run(Supplier<? extends CompletionStage<?>> task) {
+
+        try {
+            return task.get();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "OperationPipeline{" + "maxDepth=" + this.maxDepth + ", inFlight=" + getInFlight() + ", queued=" + getQueued() + ", deferred=" + getDeferred() + '}';
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.Operation;
+import jdk.incubator.sql2.OperationGroup;
+import jdk.incubator.sql2.Result;
+import jdk.incubator.sql2.SqlBlob;
+import jdk.incubator.sql2.SqlClob;
+
+import java.util.stream.Collector;
+
+/**
+ * {@link LobFactory} obtaining large objects from the first column of the first row of a query.
+ *
+ * @author Mark Paluch
+ */
+class QueryLobFactory implements LobFactory {
+
+    private final String blobQuery;
+
+    private final String clobQuery;
+
+    private QueryLobFactory(String blobQuery, String clobQuery) {
+        this.blobQuery = blobQuery;
+        this.clobQuery = clobQuery;
+    }
+
+    /**
+     * Creates a new {@link QueryLobFactory}.
+     *
+     * @param blobQuery must not be {@literal null}.
+     * @param clobQuery must not be {@literal null}.
+     * @return the {@link QueryLobFactory}.
+     */
+    static QueryLobFactory create(String blobQuery, String clobQuery) {
+
+        Assert.notNull(blobQuery, "BLOB query must not be null!");
+        Assert.notNull(clobQuery, "CLOB query must not be null!");
+
+        return new QueryLobFactory(blobQuery, clobQuery);
+    }
+
+    @Override
+    public Operation<SqlBlob> blobOperation(OperationGroup<Object, Object> group) {
+        return group.<SqlBlob>rowOperation(this.blobQuery).collect(firstColumn(SqlBlob.class));
+    }
+
+    @Override
+    public Operation<SqlClob> clobOperation(OperationGroup<Object, Object> group) {
+        return group.<SqlClob>rowOperation(this.clobQuery).collect(firstColumn(SqlClob.class));
+    }
+
+    private static <T> Collector<Result.RowColumn, ?, T> firstColumn(Class<T> type) {
+
+        return Collector.<Result.RowColumn, Object[], T>of(() -> new Object[1], (container, rowColumn) -> {
+
+            if (container[0] == null) {
+                container[0] = rowColumn.at(1).get(type);
+            }
+        }, (left, right) -> left[0] != null ? left : right, container -> {
+
+            if (container[0] == null) {
+                throw new IllegalStateException("Large object query did not return a large object");
+            }
+
+            return type.cast(container[0]);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "QueryLobFactory{" + "blobQuery='" + this.blobQuery + '\'' + ", clobQuery='" + this.clobQuery + '\'' + '}';
+    }
+}
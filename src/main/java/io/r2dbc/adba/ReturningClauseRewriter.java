@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * {@link GeneratedValuesRewriter} appending a {@code RETURNING} clause to data-modifying statements. String literals,
+ * quoted identifiers and comments are ignored when inspecting the statement. Statements not starting with
+ * {@code INSERT}, {@code UPDATE}, or {@code DELETE} (e.g. common table expressions) are not rewritten.
+ *
+ * @author Mark Paluch
+ */
+class ReturningClauseRewriter implements GeneratedValuesRewriter {
+
+    static final ReturningClauseRewriter INSTANCE = new ReturningClauseRewriter();
+
+    private static final Pattern COLUMN = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*|\"(?:[^\"]|\"\")+\"");
+
+    private ReturningClauseRewriter() {
+    }
+
+    @Nullable
+    @Override
+    public String rewrite(String sql, List<String> columns) {
+
+        Assert.notNull(sql, "SQL must not be null!");
+        Assert.notNull(columns, "Columns must not be null!");
+
+        for (String column : columns) {
+            Assert.isTrue(column != null && COLUMN.matcher(column).matches(), () -> String.format("Column [%s] is not a valid identifier", column));
+        }
+
+        String code = SqlText.mask(sql);
+
+        if (!isDataModifying(code)) {
+            return null;
+        }
+
+        if (SqlText.hasReturningClause(code)) {
+            return sql;
+        }
+
+        return sql.substring(0, getStatementEnd(code)) + " RETURNING " + (columns.isEmpty() ? "*" : String.join(", ", columns));
+    }
+
+    private static boolean isDataModifying(String code) {
+
+        switch (SqlText.getLeadingKeyword(code)) {
+            case "INSERT":
+            case "UPDATE":
+            case "DELETE":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Determine the end of the statement excluding trailing whitespace, comments and semicolons.
+     */
+    private static int getStatementEnd(String code) {
+
+        int end = code.length();
+
+        while (end > 0 && (Character.isWhitespace(code.charAt(end - 1)) || code.charAt(end - 1) == ';')) {
+            end--;
+        }
+
+        return end;
+    }
+}
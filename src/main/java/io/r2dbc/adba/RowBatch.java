@@ -0,0 +1,383 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.spi.RowMetadata;
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.Result;
+import jdk.incubator.sql2.SqlType;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Column-oriented batch of rows. Values of integral columns ({@code BIGINT}, {@code INTEGER}, {@code SMALLINT},
+ * {@code TINYINT}) are held in {@code long[]} arrays and values of floating-point columns ({@code DOUBLE},
+ * {@code FLOAT}, {@code REAL}) in {@code double[]} arrays. All other columns are held in {@code Object[]} arrays.
+ * {@literal null} values are tracked in a bitmap per column; primitive arrays hold {@literal 0} for {@literal null}
+ * values.
+ * <p>
+ * Columns are addressed by their 1-based index, rows by their 0-based position within the batch. Arrays returned by
+ * {@link RowBatch} are owned by the batch and must not be modified.
+ *
+ * @author Mark Paluch
+ * @see AdbaStatement.AdbaResult#batches(int)
+ */
+public final class RowBatch {
+
+    static final byte LONG = 0;
+
+    static final byte DOUBLE = 1;
+
+    static final byte OBJECT = 2;
+
+    private final AdbaRowMetadata metadata;
+
+    private final int size;
+
+    private final byte[] kinds;
+
+    private final Object[] columns;
+
+    private final long[][] nulls;
+
+    private RowBatch(AdbaRowMetadata metadata, int size, byte[] kinds, Object[] columns, long[][] nulls) {
+        this.metadata = metadata;
+        this.size = size;
+        this.kinds = kinds;
+        this.columns = columns;
+        this.nulls = nulls;
+    }
+
+    /**
+     * Create a new {@link Builder} to collect batches of {@code batchSize} rows.
+     *
+     * @param batchSize the number of rows per batch, must be greater than zero.
+     * @return the {@link Builder}.
+     */
+    static Builder builder(int batchSize) {
+
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than zero!");
+
+        return new Builder(batchSize);
+    }
+
+    /**
+     * @return the number of rows in this batch.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return this.kinds.length;
+    }
+
+    /**
+     * @return the {@link RowMetadata} describing the columns of this batch.
+     */
+    public RowMetadata getRowMetadata() {
+        return this.metadata;
+    }
+
+    /**
+     * Check whether the value of {@code column} at {@code row} is {@literal null}.
+     *
+     * @param column the 1-based column index.
+     * @param row    the 0-based row position.
+     * @return {@literal true} if the value is {@literal null}.
+     */
+    public boolean isNull(int column, int row) {
+        return (this.nulls[column - 1][row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * @param column the 1-based column index.
+     * @return {@literal true} if values of {@code column} are held in a {@code long[]} array.
+     */
+    public boolean isLongColumn(int column) {
+        return this.kinds[column - 1] == LONG;
+    }
+
+    /**
+     * @param column the 1-based column index.
+     * @return {@literal true} if values of {@code column} are held in a {@code double[]} array.
+     */
+    public boolean isDoubleColumn(int column) {
+        return this.kinds[column - 1] == DOUBLE;
+    }
+
+    /**
+     * Return the values of an integral column. The array may be longer than {@link #size()}.
+     *
+     * @param column the 1-based column index.
+     * @return the column values.
+     * @throws IllegalArgumentException if the column is not an integral column.
+     */
+    public long[] getLongs(int column) {
+        return (long[]) getColumn(column, LONG);
+    }
+
+    /**
+     * Return the values of a floating-point column. The array may be longer than {@link #size()}.
+     *
+     * @param column the 1-based column index.
+     * @return the column values.
+     * @throws IllegalArgumentException if the column is not a floating-point column.
+     */
+    public double[] getDoubles(int column) {
+        return (double[]) getColumn(column, DOUBLE);
+    }
+
+    /**
+     * Return the values of a column that is neither integral nor floating-point. The array may be longer than
+     * {@link #size()}.
+     *
+     * @param column the 1-based column index.
+     * @return the column values.
+     * @throws IllegalArgumentException if the column is held in a primitive array.
+     */
+    public Object[] getObjects(int column) {
+        return (Object[]) getColumn(column, OBJECT);
+    }
+
+    /**
+     * Return the value of {@code column} at {@code row} regardless of how the column is held. Primitive values are
+     * boxed.
+     *
+     * @param column the 1-based column index.
+     * @param row    the 0-based row position.
+     * @return the value. Can be {@literal null}.
+     */
+    @Nullable
+    public Object get(int column, int row) {
+
+        if (isNull(column, row)) {
+            return null;
+        }
+
+        switch (this.kinds[column - 1]) {
+            case LONG:
+                return getLongs(column)[row];
+            case DOUBLE:
+                return getDoubles(column)[row];
+            default:
+                return getObjects(column)[row];
+        }
+    }
+
+    private Object getColumn(int column, byte kind) {
+
+        if (this.kinds[column - 1] != kind) {
+            throw new IllegalArgumentException(String.format("Column %d is held as %s", column, describe(this.kinds[column - 1])));
+        }
+
+        return this.columns[column - 1];
+    }
+
+    private static String describe(byte kind) {
+
+        switch (kind) {
+            case LONG:
+                return "long[]";
+            case DOUBLE:
+                return "double[]";
+            default:
+                return "Object[]";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RowBatch{" + "size=" + this.size + ", columns=" + this.kinds.length + '}';
+    }
+
+    /**
+     * Collects rows into {@link RowBatch}es. Column arrays are filled straight from {@link Result.Column} and handed
+     * over to the {@link RowBatch} once the batch is full. Not thread-safe; a {@link Builder} is used by a single result
+     * subscription.
+     */
+    static class Builder {
+
+        private final int batchSize;
+
+        private @Nullable
+        AdbaRowMetadata metadata;
+
+        private byte[] kinds;
+
+        private Class<?>[] types;
+
+        private Object[] columns;
+
+        private long[][] nulls;
+
+        private int size;
+
+        private Builder(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Add a row to the current batch.
+         *
+         * @param rowColumn the row, must not be {@literal null}.
+         * @param metadata  the shared {@link AdbaRowMetadata}, must not be {@literal null}.
+         * @return the completed {@link RowBatch} if the row filled the batch, {@literal null} otherwise.
+         */
+        @Nullable
+        RowBatch add(Result.RowColumn rowColumn, AdbaRowMetadata metadata) {
+
+            if (this.metadata != metadata) {
+                initialize(rowColumn, metadata);
+            }
+
+            if (this.columns == null) {
+                allocate();
+            }
+
+            int row = this.size;
+
+            for (int i = 0; i < this.kinds.length; i++) {
+
+                Result.Column column = rowColumn.at(i + 1);
+                Object value = this.types[i] != null ? column.get(this.types[i]) : column.get();
+
+                if (value == null) {
+                    this.nulls[i][row >>> 6] |= 1L << row;
+                    continue;
+                }
+
+                switch (this.kinds[i]) {
+                    case LONG:
+                        ((long[]) this.columns[i])[row] = ((Number) value).longValue();
+                        break;
+                    case DOUBLE:
+                        ((double[]) this.columns[i])[row] = ((Number) value).doubleValue();
+                        break;
+                    default:
+                        ((Object[]) this.columns[i])[row] = value;
+                }
+            }
+
+            this.size++;
+
+            return this.size == this.batchSize ? build() : null;
+        }
+
+        /**
+         * Complete the current batch.
+         *
+         * @return the {@link RowBatch} holding the rows collected so far or {@literal null} if there are none.
+         */
+        @Nullable
+        RowBatch build() {
+
+            if (this.size == 0) {
+                return null;
+            }
+
+            RowBatch batch = new RowBatch(this.metadata, this.size, this.kinds, this.columns, this.nulls);
+
+            this.columns = null;
+            this.nulls = null;
+            this.size = 0;
+
+            return batch;
+        }
+
+        private void initialize(Result.RowColumn rowColumn, AdbaRowMetadata metadata) {
+
+            RowBatch pending = build();
+            Assert.isTrue(pending == null, "Result columns must not change within a batch");
+
+            int columnCount = metadata.getColumnMetadatas().size();
+
+            this.metadata = metadata;
+            this.kinds = new byte[columnCount];
+            this.types = new Class<?>[columnCount];
+
+            for (int i = 0; i < columnCount; i++) {
+
+                SqlType sqlType = rowColumn.at(i + 1).sqlType();
+                this.types[i] = getJavaType(sqlType);
+                this.kinds[i] = getKind(sqlType);
+            }
+        }
+
+        private void allocate() {
+
+            this.columns = new Object[this.kinds.length];
+            this.nulls = new long[this.kinds.length][(this.batchSize + 63) >>> 6];
+
+            for (int i = 0; i < this.kinds.length; i++) {
+
+                switch (this.kinds[i]) {
+                    case LONG:
+                        this.columns[i] = new long[this.batchSize];
+                        break;
+                    case DOUBLE:
+                        this.columns[i] = new double[this.batchSize];
+                        break;
+                    default:
+                        this.columns[i] = new Object[this.batchSize];
+                }
+            }
+        }
+
+        @Nullable
+        private static Class<?> getJavaType(@Nullable SqlType sqlType) {
+
+            if (sqlType == AdbaType.BIGINT) {
+                return Long.class;
+            }
+
+            if (sqlType == AdbaType.INTEGER) {
+                return Integer.class;
+            }
+
+            if (sqlType == AdbaType.SMALLINT) {
+                return Short.class;
+            }
+
+            if (sqlType == AdbaType.TINYINT) {
+                return Byte.class;
+            }
+
+            if (sqlType == AdbaType.DOUBLE || sqlType == AdbaType.FLOAT) {
+                return Double.class;
+            }
+
+            if (sqlType == AdbaType.REAL) {
+                return Float.class;
+            }
+
+            return null;
+        }
+
+        private static byte getKind(@Nullable SqlType sqlType) {
+
+            Class<?> javaType = getJavaType(sqlType);
+
+            if (javaType == Double.class || javaType == Float.class) {
+                return DOUBLE;
+            }
+
+            return javaType != null ? LONG : OBJECT;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+/**
+ * Maps an {@link AdbaRow} to an object. {@link RowMapper}s are generated by {@link RowMappers} for a result shape
+ * described by {@link AdbaRowMetadata} with column positions bound ahead of time.
+ *
+ * @param <T> the mapped type.
+ * @author Mark Paluch
+ * @see RowMappers
+ */
+@FunctionalInterface
+interface RowMapper<T> {
+
+    /**
+     * Map {@code row} to an object.
+     *
+     * @param row must not be {@literal null}.
+     * @return the mapped object.
+     */
+    T map(AdbaRow row);
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.util.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Generates {@link RowMapper}s that map rows to records and POJOs. A {@link RowMapper} is generated once per result
+ * shape and target type: record components and writable properties are matched against column names when generating
+ * the mapper and bound to the column position, so that each row is decoded positionally through the cached
+ * {@link ColumnDecoder column decoders} without name lookups. Construction and property access use
+ * {@link MethodHandle}s obtained once per mapper.
+ * <p>
+ * Records are instantiated through their canonical constructor. Other types require a no-argument constructor and are
+ * populated through setter methods or non-final fields. Properties match columns by name, ignoring case, or by their
+ * {@code snake_case} name. Unmatched properties are left at their default value.
+ *
+ * @author Mark Paluch
+ * @see AdbaRowMetadata#getRowMapper(Class)
+ */
+class RowMappers {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class, Object[].class);
+
+    private static final MethodType NO_ARG_CONSTRUCTOR = MethodType.methodType(Object.class);
+
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final @Nullable
+    Method IS_RECORD = findMethod(Class.class, "isRecord");
+
+    private static final @Nullable
+    Method GET_RECORD_COMPONENTS = findMethod(Class.class, "getRecordComponents");
+
+    private RowMappers() {
+    }
+
+    /**
+     * Returns a mapping function that maps rows to {@code type} through a {@link RowMapper} generated for the
+     * {@link AdbaRowMetadata} of the result. The mapper of the most recent result shape is retained by the function.
+     *
+     * @param type must not be {@literal null}.
+     * @return the mapping function.
+     */
+    static <T> BiFunction<Row, RowMetadata, T> forType(Class<T> type) {
+
+        Assert.notNull(type, "Type must not be null!");
+
+        return new MappingFunction<>(type);
+    }
+
+    /**
+     * Generate a {@link RowMapper} for rows described by {@code metadata}.
+     *
+     * @param metadata must not be {@literal null}.
+     * @param type     must not be {@literal null}.
+     * @return the {@link RowMapper}.
+     * @throws IllegalArgumentException if {@code type} cannot be instantiated.
+     */
+    static <T> RowMapper<T> create(AdbaRowMetadata metadata, Class<T> type) {
+
+        Assert.notNull(metadata, "AdbaRowMetadata must not be null!");
+        Assert.notNull(type, "Type must not be null!");
+
+        try {
+            return isRecord(type) ? createConstructorMapper(metadata, type) : createPropertyMapper(metadata, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(String.format("Cannot create RowMapper for %s", type.getName()), e);
+        }
+    }
+
+    private static <T> RowMapper<T> createConstructorMapper(AdbaRowMetadata metadata, Class<T> type) throws ReflectiveOperationException {
+
+        Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        Property[] properties = new Property[components.length];
+
+        for (int i = 0; i < components.length; i++) {
+
+            Method getName = components[i].getClass().getMethod("getName");
+            Method getType = components[i].getClass().getMethod("getType");
+
+            parameterTypes[i] = (Class<?>) getType.invoke(components[i]);
+            properties[i] = new Property(getColumnIndex(metadata, (String) getName.invoke(components[i])), parameterTypes[i], null);
+        }
+
+        Constructor<T> constructor = type.getDeclaredConstructor(parameterTypes);
+        constructor.trySetAccessible();
+
+        MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asSpreader(Object[].class, parameterTypes.length).asType(CONSTRUCTOR);
+
+        return new ConstructorRowMapper<>(handle, properties);
+    }
+
+    private static <T> RowMapper<T> createPropertyMapper(AdbaRowMetadata metadata, Class<T> type) throws ReflectiveOperationException {
+
+        Constructor<T> constructor = type.getDeclaredConstructor();
+        constructor.trySetAccessible();
+
+        MethodHandle handle = LOOKUP.unreflectConstructor(constructor).asType(NO_ARG_CONSTRUCTOR);
+        List<Property> properties = new ArrayList<>();
+
+        for (Map.Entry<String, Object> entry : getWritableMembers(type).entrySet()) {
+
+            int index = getColumnIndex(metadata, entry.getKey());
+            if (index == -1) {
+                continue;
+            }
+
+            if (entry.getValue() instanceof Method) {
+
+                Method setter = (Method) entry.getValue();
+                properties.add(new Property(index, setter.getParameterTypes()[0], LOOKUP.unreflect(setter).asType(SETTER)));
+            } else {
+
+                Field field = (Field) entry.getValue();
+                properties.add(new Property(index, field.getType(), LOOKUP.unreflectSetter(field).asType(SETTER)));
+            }
+        }
+
+        return new PropertyRowMapper<>(handle, properties.toArray(new Property[0]));
+    }
+
+    /**
+     * Collect setter methods and non-final instance fields by property name. Setters take precedence over fields.
+     */
+    private static Map<String, Object> getWritableMembers(Class<?> type) {
+
+        Map<String, Object> members = new LinkedHashMap<>();
+
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+
+            for (Field field : current.getDeclaredFields()) {
+
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !field.isSynthetic() && field.trySetAccessible()) {
+                    members.putIfAbsent(field.getName(), field);
+                }
+            }
+        }
+
+        for (Method method : type.getMethods()) {
+
+            String name = method.getName();
+            if (name.length() > 3 && name.startsWith("set") && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers()) && method.trySetAccessible()) {
+                members.put(Character.toLowerCase(name.charAt(3)) + name.substring(4), method);
+            }
+        }
+
+        return members;
+    }
+
+    private static int getColumnIndex(AdbaRowMetadata metadata, String propertyName) {
+
+        int index = metadata.getColumnIndex(propertyName);
+
+        return index != -1 ? index : metadata.getColumnIndex(toSnakeCase(propertyName));
+    }
+
+    private static String toSnakeCase(String propertyName) {
+
+        StringBuilder builder = new StringBuilder(propertyName.length() + 4);
+
+        for (int i = 0; i < propertyName.length(); i++) {
+
+            char c = propertyName.charAt(i);
+            if (Character.isUpperCase(c) && i > 0) {
+                builder.append('_');
+            }
+
+            builder.append(Character.toLowerCase(c));
+        }
+
+        return builder.toString();
+    }
+
+    private static boolean isRecord(Class<?> type) {
+
+        try {
+            return IS_RECORD != null && GET_RECORD_COMPONENTS != null && (Boolean) IS_RECORD.invoke(type);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static Method findMethod(Class<?> type, String name) {
+
+        try {
+            return type.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static RuntimeException mappingFailed(Throwable throwable) {
+
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+
+        return new IllegalStateException("Cannot map row", throwable);
+    }
+
+    /**
+     * A property bound to a column position.
+     */
+    static class Property {
+
+        final int index;
+
+        final Class<?> type;
+
+        final @Nullable
+        Object defaultValue;
+
+        final @Nullable
+        MethodHandle setter;
+
+        Property(int index, Class<?> type, @Nullable MethodHandle setter) {
+
+            this.index = index;
+            this.type = type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+            this.defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+            this.setter = setter;
+        }
+
+        @Nullable
+        Object decode(AdbaRow row) {
+            return this.index != -1 ? row.decode(this.index, this.type) : null;
+        }
+    }
+
+    /**
+     * {@link RowMapper} instantiating objects through a constructor that accepts all properties.
+     */
+    static class ConstructorRowMapper<T> implements RowMapper<T> {
+
+        private final MethodHandle constructor;
+
+        private final Property[] properties;
+
+        ConstructorRowMapper(MethodHandle constructor, Property[] properties) {
+            this.constructor = constructor;
+            this.properties = properties;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T map(AdbaRow row) {
+
+            Object[] arguments = new Object[this.properties.length];
+
+            for (int i = 0; i < arguments.length; i++) {
+
+                Property property = this.properties[i];
+                Object value = property.decode(row);
+                arguments[i] = value != null ? value : property.defaultValue;
+            }
+
+            try {
+                return (T) this.constructor.invokeExact(arguments);
+            } catch (Throwable e) {
+                throw mappingFailed(e);
+            }
+        }
+    }
+
+    /**
+     * {@link RowMapper} instantiating objects through a no-argument constructor and populating properties through
+     * setters.
+     */
+    static class PropertyRowMapper<T> implements RowMapper<T> {
+
+        private final MethodHandle constructor;
+
+        private final Property[] properties;
+
+        PropertyRowMapper(MethodHandle constructor, Property[] properties) {
+            this.constructor = constructor;
+            this.properties = properties;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T map(AdbaRow row) {
+
+            try {
+
+                Object instance = this.constructor.invokeExact();
+
+                for (Property property : this.properties) {
+
+                    Object value = property.decode(row);
+
+                    // leave primitives at their default value
+                    if (value != null || property.defaultValue == null) {
+                        property.setter.invokeExact(instance, value);
+                    }
+                }
+
+                return (T) instance;
+            } catch (Throwable e) {
+                throw mappingFailed(e);
+            }
+        }
+    }
+
+    /**
+     * Mapping function retaining the {@link RowMapper} of the most recent {@link AdbaRowMetadata}.
+     */
+    static class MappingFunction<T> implements BiFunction<Row, RowMetadata, T> {
+
+        private final Class<T> type;
+
+        private volatile @Nullable
+        Cached<T> cached;
+
+        MappingFunction(Class<T> type) {
+            this.type = type;
+        }
+
+        @Override
+        public T apply(Row row, RowMetadata rowMetadata) {
+
+            Cached<T> cached = this.cached;
+
+            if (cached == null || cached.metadata != rowMetadata) {
+
+                AdbaRowMetadata metadata = (AdbaRowMetadata) rowMetadata;
+                cached = new Cached<>(metadata, metadata.getRowMapper(this.type));
+                this.cached = cached;
+            }
+
+            return cached.mapper.map((AdbaRow) row);
+        }
+    }
+
+    private static class Cached<T> {
+
+        final AdbaRowMetadata metadata;
+
+        final RowMapper<T> mapper;
+
+        Cached(AdbaRowMetadata metadata, RowMapper<T> mapper) {
+            this.metadata = metadata;
+            this.mapper = mapper;
+        }
+    }
+}
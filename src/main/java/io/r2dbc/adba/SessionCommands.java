@@ -0,0 +1,244 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.spi.IsolationLevel;
+import jdk.incubator.sql2.Session;
+import jdk.incubator.sql2.TransactionCompletion;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Issues session-level SQL commands for savepoints and transaction isolation. Commands are
+ * {@link OperationPipeline#defer(Supplier) deferred} and submitted along with the next statement of the session.
+ * Failures of deferred commands are reported through that statement. Commands that have no effect are elided
+ * entirely:
+ * <ul>
+ * <li>Releasing a savepoint whose creation is still pending. Neither command is sent.</li>
+ * <li>Rolling back to a savepoint whose creation is still pending.</li>
+ * </ul>
+ * The isolation level is applied through the standard {@code SET TRANSACTION ISOLATION LEVEL} command as the first
+ * command of each transaction {@link #beginTransaction(Supplier) begun} after it was configured. Databases differ in
+ * whether the command may be issued once a transaction has run statements and in whether it affects the running
+ * transaction, so changes made while a transaction is active take effect with the next transaction only. The command
+ * is sent once per transaction as it is scoped to a single transaction on most databases. Statements executed outside
+ * of a transaction use the session's default isolation level. Savepoint names must be plain SQL identifiers.
+ *
+ * @author Mark Paluch
+ */
+class SessionCommands {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+
+    private final Session session;
+
+    private final OperationPipeline pipeline;
+
+    private final TransactionState transaction;
+
+    private volatile @Nullable
+    IsolationLevel isolationLevel;
+
+    private @Nullable
+    String savepointName;
+
+    private @Nullable
+    Supplier<CompletionStage<Object>> savepointTask;
+
+    private SessionCommands(Session session, OperationPipeline pipeline, TransactionState transaction) {
+        this.session = session;
+        this.pipeline = pipeline;
+        this.transaction = transaction;
+    }
+
+    /**
+     * Creates new {@link SessionCommands} for a {@link Session}, its {@link OperationPipeline} and
+     * {@link TransactionState}.
+     *
+     * @param session     must not be {@literal null}.
+     * @param pipeline    must not be {@literal null}.
+     * @param transaction must not be {@literal null}.
+     * @return the new {@link SessionCommands}.
+     */
+    static SessionCommands create(Session session, OperationPipeline pipeline, TransactionState transaction) {
+
+        Assert.notNull(session, "Session must not be null!");
+        Assert.notNull(pipeline, "OperationPipeline must not be null!");
+        Assert.notNull(transaction, "TransactionState must not be null!");
+
+        return new SessionCommands(session, pipeline, transaction);
+    }
+
+    /**
+     * Begin a transaction and defer applying the {@link #setTransactionIsolationLevel(IsolationLevel) configured
+     * isolation level} to it.
+     *
+     * @param transactionFactory supplier for a new {@link TransactionCompletion}, must not be {@literal null}.
+     * @return a {@link Mono} that completes once the transaction is started.
+     */
+    Mono<Void> beginTransaction(Supplier<TransactionCompletion> transactionFactory) {
+
+        Assert.notNull(transactionFactory, "Transaction factory must not be null!");
+
+        return Mono.fromRunnable(() -> {
+
+            synchronized (this) {
+
+                IsolationLevel isolationLevel = this.isolationLevel;
+
+                if (this.transaction.begin(transactionFactory) && isolationLevel != null) {
+                    deferIsolationLevel(isolationLevel);
+                }
+            }
+        });
+    }
+
+    /**
+     * Defer creation of the savepoint {@code name}.
+     *
+     * @param name must not be {@literal null}.
+     * @return a {@link Mono} that completes once the command is deferred.
+     * @throws IllegalArgumentException if {@code name} is not a valid identifier.
+     */
+    Mono<Void> createSavepoint(String name) {
+
+        assertSavepointName(name);
+
+        return Mono.fromRunnable(() -> {
+
+            synchronized (this) {
+
+                Supplier<CompletionStage<Object>> task = command("SAVEPOINT " + name);
+
+                this.pipeline.defer(task);
+                this.savepointName = name;
+                this.savepointTask = task;
+            }
+        });
+    }
+
+    /**
+     * Defer release of the savepoint {@code name}. Elides both commands if the savepoint creation is still pending.
+     *
+     * @param name must not be {@literal null}.
+     * @return a {@link Mono} that completes once the command is deferred.
+     * @throws IllegalArgumentException if {@code name} is not a valid identifier.
+     */
+    Mono<Void> releaseSavepoint(String name) {
+
+        assertSavepointName(name);
+
+        return Mono.fromRunnable(() -> {
+
+            synchronized (this) {
+
+                if (isPendingSavepoint(name) && this.pipeline.undefer(this.savepointTask)) {
+                    return;
+                }
+
+                this.pipeline.defer(command("RELEASE SAVEPOINT " + name));
+            }
+        });
+    }
+
+    /**
+     * Defer rolling back to the savepoint {@code name}. Elides the command if the savepoint creation is still pending as
+     * there is nothing to roll back.
+     *
+     * @param name must not be {@literal null}.
+     * @return a {@link Mono} that completes once the command is deferred.
+     * @throws IllegalArgumentException if {@code name} is not a valid identifier.
+     */
+    Mono<Void> rollbackToSavepoint(String name) {
+
+        assertSavepointName(name);
+
+        return Mono.fromRunnable(() -> {
+
+            synchronized (this) {
+
+                if (isPendingSavepoint(name) && this.pipeline.isLastDeferred(this.savepointTask)) {
+                    return;
+                }
+
+                this.pipeline.defer(command("ROLLBACK TO SAVEPOINT " + name));
+            }
+        });
+    }
+
+    /**
+     * Change the transaction isolation level for transactions begun afterwards. Does not issue a command: the active
+     * transaction, if any, keeps its isolation level and {@code isolationLevel} is applied when the next transaction
+     * {@link #beginTransaction(Supplier) begins}.
+     *
+     * @param isolationLevel must not be {@literal null}.
+     * @return a {@link Mono} that completes once the isolation level is configured.
+     */
+    Mono<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+
+        Assert.notNull(isolationLevel, "IsolationLevel must not be null!");
+
+        return Mono.fromRunnable(() -> this.isolationLevel = isolationLevel);
+    }
+
+    /**
+     * @return the isolation level for transactions begun afterwards. {@literal null} if not set.
+     */
+    @Nullable
+    IsolationLevel getIsolationLevel() {
+        return this.isolationLevel;
+    }
+
+    /**
+     * Discard commands that were not submitted yet and forget the configured isolation level so that subsequent
+     * transactions use the session's default isolation level again.
+     *
+     * @return the number of discarded commands.
+     */
+    int reset() {
+
+        synchronized (this) {
+
+            this.isolationLevel = null;
+            this.savepointName = null;
+            this.savepointTask = null;
+
+            return this.pipeline.discardDeferred();
+        }
+    }
+
+    private void deferIsolationLevel(IsolationLevel isolationLevel) {
+        this.pipeline.defer(command("SET TRANSACTION ISOLATION LEVEL " + isolationLevel.asSql()));
+    }
+
+    private boolean isPendingSavepoint(String name) {
+        return name.equals(this.savepointName) && this.savepointTask != null;
+    }
+
+    private Supplier<CompletionStage<Object>> command(String sql) {
+        return () -> this.session.operation(sql).submit().getCompletionStage();
+    }
+
+    private static void assertSavepointName(String name) {
+
+        Assert.notNull(name, "Savepoint name must not be null!");
+        Assert.isTrue(IDENTIFIER.matcher(name).matches(), () -> String.format("Savepoint name [%s] is not a valid identifier", name));
+    }
+}
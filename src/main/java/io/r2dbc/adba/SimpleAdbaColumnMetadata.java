@@ -45,10 +45,11 @@ class SimpleAdbaColumnMetadata implements AdbaColumnMetadata {
      * Create {@link SimpleAdbaColumnMetadata} from {@link jdk.incubator.sql2.Result.Column}.
      *
      * @param column must not be {@literal null}.
+     * @param index  the 1-based column index.
      * @return {@link SimpleAdbaColumnMetadata} for {@link jdk.incubator.sql2.Result.Column}.
      */
-    static SimpleAdbaColumnMetadata from(Result.Column column) {
-        return new SimpleAdbaColumnMetadata(column.identifier(), column.index(), Optional.empty(), null);
+    static SimpleAdbaColumnMetadata from(Result.Column column, int index) {
+        return new SimpleAdbaColumnMetadata(column.identifier(), index, Optional.empty(), null);
     }
 
     @Override
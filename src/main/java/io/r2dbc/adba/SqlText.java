@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilities to inspect SQL text without parsing it. String literals, quoted identifiers and comments are ignored.
+ *
+ * @author Mark Paluch
+ */
+class SqlText {
+
+    private static final Pattern RETURNING = Pattern.compile("\\bRETURNING\\b", Pattern.CASE_INSENSITIVE);
+
+    private SqlText() {
+    }
+
+    /**
+     * Replace string literals, quoted identifiers and comments with blanks so that only SQL keywords and unquoted
+     * identifiers remain at their original positions.
+     *
+     * @param sql the SQL text, must not be {@literal null}.
+     * @return the masked SQL text of the same length as {@code sql}.
+     */
+    static String mask(String sql) {
+
+        char[] chars = sql.toCharArray();
+        int index = 0;
+
+        while (index < chars.length) {
+
+            char c = chars[index];
+            int end;
+
+            if (c == '\'' || c == '"') {
+                end = getQuoteEnd(chars, index, c);
+            } else if (c == '-' && index + 1 < chars.length && chars[index + 1] == '-') {
+                end = sql.indexOf('\n', index);
+                end = end == -1 ? chars.length : end;
+            } else if (c == '/' && index + 1 < chars.length && chars[index + 1] == '*') {
+                end = sql.indexOf("*/", index + 2);
+                end = end == -1 ? chars.length : end + 2;
+            } else {
+                index++;
+                continue;
+            }
+
+            Arrays.fill(chars, index, end, ' ');
+            index = end;
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * Return the leading keyword of {@link #mask(String) masked} SQL text in upper case.
+     *
+     * @param code the masked SQL text, must not be {@literal null}.
+     * @return the leading keyword or an empty {@link String} if the text does not start with a keyword.
+     */
+    static String getLeadingKeyword(String code) {
+
+        int start = 0;
+
+        while (start < code.length() && (Character.isWhitespace(code.charAt(start)) || code.charAt(start) == '(')) {
+            start++;
+        }
+
+        int end = start;
+
+        while (end < code.length() && Character.isLetter(code.charAt(end))) {
+            end++;
+        }
+
+        return code.substring(start, end).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Check whether {@link #mask(String) masked} SQL text contains a {@code RETURNING} clause.
+     *
+     * @param code the masked SQL text, must not be {@literal null}.
+     * @return {@literal true} if the text contains the {@code RETURNING} keyword.
+     */
+    static boolean hasReturningClause(String code) {
+        return RETURNING.matcher(code).find();
+    }
+
+    private static int getQuoteEnd(char[] chars, int start, char quote) {
+
+        int index = start + 1;
+
+        while (index < chars.length) {
+
+            if (chars[index] == quote) {
+
+                // doubled quotes escape the quote character
+                if (index + 1 < chars.length && chars[index + 1] == quote) {
+                    index += 2;
+                    continue;
+                }
+
+                return index + 1;
+            }
+
+            index++;
+        }
+
+        return chars.length;
+    }
+}
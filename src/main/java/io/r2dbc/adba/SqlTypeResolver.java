@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.SqlClob;
+import jdk.incubator.sql2.SqlType;
+import reactor.util.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Resolves the {@link SqlType} for a parameter value based on its {@link Class}. Resolution results are memoized per
+ * concrete class using a {@link ClassValue} so that each class is resolved only once. Custom type mappings take
+ * precedence over the default mappings derived from {@link AdbaType}: a custom mapping for a supertype wins over a
+ * default mapping for the exact type.
+ *
+ * @author Mark Paluch
+ */
+class SqlTypeResolver {
+
+    private static final Map<Class<?>, SqlType> DEFAULT_TYPES = new LinkedHashMap<>();
+
+    static {
+
+        for (AdbaType adbaType : AdbaType.values()) {
+            DEFAULT_TYPES.put(adbaType.getJavaType(), adbaType);
+        }
+
+        DEFAULT_TYPES.put(Void.class, AdbaType.NULL);
+        DEFAULT_TYPES.put(String.class, AdbaType.VARCHAR);
+        DEFAULT_TYPES.put(Object.class, AdbaType.OTHER);
+        DEFAULT_TYPES.put(Boolean.class, AdbaType.BOOLEAN);
+        DEFAULT_TYPES.put(Byte.class, AdbaType.TINYINT);
+        DEFAULT_TYPES.put(Short.class, AdbaType.SMALLINT);
+        DEFAULT_TYPES.put(Integer.class, AdbaType.INTEGER);
+        DEFAULT_TYPES.put(Long.class, AdbaType.BIGINT);
+        DEFAULT_TYPES.put(Float.class, AdbaType.REAL);
+        DEFAULT_TYPES.put(Double.class, AdbaType.DOUBLE);
+        DEFAULT_TYPES.put(SqlClob.class, AdbaType.CLOB);
+        DEFAULT_TYPES.put(byte[].class, AdbaType.BINARY);
+    }
+
+    private static final SqlTypeResolver DEFAULT = new SqlTypeResolver(Collections.emptyMap());
+
+    private final Map<Class<?>, SqlType> customTypes;
+
+    private final ClassValue<SqlType> cache = new ClassValue<SqlType>() {
+
+        @Override
+        protected SqlType computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private SqlTypeResolver(Map<Class<?>, SqlType> customTypes) {
+        this.customTypes = new LinkedHashMap<>(customTypes);
+    }
+
+    /**
+     * Returns the {@link SqlTypeResolver} using default type mappings.
+     *
+     * @return the default {@link SqlTypeResolver}.
+     */
+    static SqlTypeResolver create() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a new {@link SqlTypeResolver} considering {@code customTypes} before the default type mappings.
+     *
+     * @param customTypes must not be {@literal null}.
+     * @return the {@link SqlTypeResolver} for {@code customTypes}.
+     */
+    static SqlTypeResolver create(Map<Class<?>, SqlType> customTypes) {
+
+        Assert.notNull(customTypes, "Custom types must not be null!");
+
+        return customTypes.isEmpty() ? DEFAULT : new SqlTypeResolver(customTypes);
+    }
+
+    /**
+     * Determine the {@link SqlType} for {@code value}.
+     *
+     * @param value the value to bind. Can be {@literal null}.
+     * @return the resolved {@link SqlType}.
+     */
+    SqlType getType(@Nullable Object value) {
+
+        if (value == null) {
+            return AdbaType.NULL;
+        }
+
+        return this.cache.get(value.getClass());
+    }
+
+    /**
+     * Determine the {@link SqlType} for values of {@code type}. Bindings resolve primitive values through their wrapper
+     * type.
+     *
+     * @param type the value type, must not be {@literal null}.
+     * @return the resolved {@link SqlType}.
+     */
+    SqlType getTypeFor(Class<?> type) {
+
+        Assert.notNull(type, "Type must not be null!");
+
+        return this.cache.get(type);
+    }
+
+    private SqlType resolve(Class<?> type) {
+
+        SqlType sqlType = resolve(this.customTypes, type);
+
+        if (sqlType == null) {
+            sqlType = resolve(DEFAULT_TYPES, type);
+        }
+
+        return sqlType != null ? sqlType : AdbaType.OTHER;
+    }
+
+    @Nullable
+    private static SqlType resolve(Map<Class<?>, SqlType> typeMap, Class<?> type) {
+
+        SqlType sqlType = typeMap.get(type);
+        if (sqlType != null) {
+            return sqlType;
+        }
+
+        for (Entry<Class<?>, SqlType> entry : typeMap.entrySet()) {
+            if (entry.getKey() != Object.class && entry.getKey().isAssignableFrom(type)) {
+                return entry.getValue();
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of {@link StatementTemplate}s keyed by SQL text. Each {@link AdbaConnection} holds its own
+ * {@link StatementCache}. A cache with a maximum size of {@literal 0} is disabled and creates a new
+ * {@link StatementTemplate} for each lookup. Usage counters are exposed through {@link StatementCacheMetrics}.
+ *
+ * @author Mark Paluch
+ */
+class StatementCache implements StatementCacheMetrics {
+
+    private final int maxSize;
+
+    private final Map<String, StatementTemplate> templates;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private StatementCache(int maxSize) {
+
+        this.maxSize = maxSize;
+        this.templates = new LinkedHashMap<String, StatementTemplate>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StatementTemplate> eldest) {
+
+                if (size() > StatementCache.this.maxSize) {
+                    StatementCache.this.evictions.increment();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Creates a new {@link StatementCache} holding up to {@code maxSize} {@link StatementTemplate}s.
+     *
+     * @param maxSize maximum number of cached templates, must be greater or equal to zero.
+     * @return the new {@link StatementCache}.
+     */
+    static StatementCache create(int maxSize) {
+
+        Assert.isTrue(maxSize >= 0, "Maximum size must be greater or equal to zero!");
+
+        return new StatementCache(maxSize);
+    }
+
+    /**
+     * Obtain the {@link StatementTemplate} for {@code sql}. Creates and caches a new {@link StatementTemplate} if there
+     * is no cached template, evicting the least recently used template if the cache is full.
+     *
+     * @param sql must not be {@literal null}.
+     * @return the {@link StatementTemplate} for {@code sql}.
+     */
+    StatementTemplate get(String sql) {
+
+        Assert.notNull(sql, "SQL must not be null!");
+
+        if (this.maxSize == 0) {
+            this.misses.increment();
+            return StatementTemplate.create(sql);
+        }
+
+        synchronized (this.templates) {
+
+            StatementTemplate template = this.templates.get(sql);
+
+            if (template != null) {
+                this.hits.increment();
+                return template;
+            }
+
+            this.misses.increment();
+            template = StatementTemplate.create(sql);
+            this.templates.put(sql, template);
+
+            return template;
+        }
+    }
+
+    @Override
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    @Override
+    public int getSize() {
+
+        synchronized (this.templates) {
+            return this.templates.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCache{" + "maxSize=" + this.maxSize + ", size=" + getSize() + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions() + '}';
+    }
+}
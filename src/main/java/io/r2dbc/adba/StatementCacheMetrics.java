@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+/**
+ * Usage counters of the statement cache of an {@link AdbaConnection}. Counters are cumulative since the connection was
+ * created and are updated concurrently, so a snapshot of several counters is not atomic.
+ *
+ * @author Mark Paluch
+ * @see AdbaConnection#getStatementCacheMetrics()
+ * @see AdbaOptions#withStatementCacheSize(int)
+ */
+public interface StatementCacheMetrics {
+
+    /**
+     * @return the number of statements created from a cached template.
+     */
+    long getHits();
+
+    /**
+     * @return the number of statements that required a new template.
+     */
+    long getMisses();
+
+    /**
+     * @return the number of templates evicted from the cache.
+     */
+    long getEvictions();
+
+    /**
+     * @return the number of cached templates.
+     */
+    int getSize();
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.Result;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Per-SQL state that outlives a single {@link AdbaStatement} execution. ADBA operations are single-use and cannot be
+ * submitted twice, so a {@link StatementTemplate} retains what the adapter learns from an execution instead: the number
+ * of bound parameters to pre-size bindings and the {@link AdbaRowMetadata} of the last result. Cached metadata is reused
+ * as long as the result columns do not change.
+ *
+ * @author Mark Paluch
+ * @see StatementCache
+ */
+class StatementTemplate {
+
+    private final String sql;
+
+    private volatile int parameterCount;
+
+    private volatile @Nullable
+    AdbaRowMetadata rowMetadata;
+
+    private StatementTemplate(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Creates a new {@link StatementTemplate} for {@code sql}.
+     *
+     * @param sql must not be {@literal null}.
+     * @return the {@link StatementTemplate} for {@code sql}.
+     */
+    static StatementTemplate create(String sql) {
+
+        Assert.notNull(sql, "SQL must not be null!");
+
+        return new StatementTemplate(sql);
+    }
+
+    String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * @return the number of parameters bound by the last execution. {@literal 0} if unknown.
+     */
+    int getParameterCount() {
+        return this.parameterCount;
+    }
+
+    void setParameterCount(int parameterCount) {
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * Obtain the {@link AdbaRowMetadata} for {@code rowColumn}. Returns the cached {@link AdbaRowMetadata} if it matches
+     * the columns of {@code rowColumn} and {@code codecs}, otherwise creates and caches new {@link AdbaRowMetadata}.
+     * Column decoders selected by cached metadata are reused across executions.
+     *
+     * @param rowColumn must not be {@literal null}.
+     * @param codecs    must not be {@literal null}.
+     * @return the {@link AdbaRowMetadata} for {@code rowColumn}.
+     */
+    AdbaRowMetadata getRowMetadata(Result.RowColumn rowColumn, Codecs codecs) {
+
+        AdbaRowMetadata rowMetadata = this.rowMetadata;
+
+        if (rowMetadata != null && rowMetadata.matches(rowColumn, codecs)) {
+            return rowMetadata;
+        }
+
+        rowMetadata = AdbaRowMetadata.create(rowColumn, codecs);
+        this.rowMetadata = rowMetadata;
+
+        return rowMetadata;
+    }
+
+    @Override
+    public String toString() {
+        return "StatementTemplate{" + "sql='" + this.sql + '\'' + ", parameterCount=" + this.parameterCount + '}';
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.OperationGroup;
+import jdk.incubator.sql2.SqlBlob;
+import jdk.incubator.sql2.SqlClob;
+import jdk.incubator.sql2.SqlType;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.CompletionHandler;
+
+/**
+ * Parameter value streaming a {@link Publisher} of {@link ByteBuffer}s or {@link CharSequence}s into a large object
+ * created by the driver through a {@link LobFactory}. The large object type is either declared through
+ * {@link LobStream} or determined from the first element which is why an undeclared publisher must emit at least one
+ * element. A {@link StreamParameter} must be {@link #write(OperationGroup, OperationPipeline, LobFactory) written}
+ * before binding it.
+ * <p>
+ * Elements are written one at a time with demand limited to a single element prefetched while the previous one is
+ * written so that at most one element is buffered. {@link ByteBuffer}s are written through the {@link SqlBlob#getWriteChannel() BLOB write
+ * channel} without blocking. ADBA exposes CLOB content only through a blocking {@link SqlClob#getWriter() Writer} so
+ * {@link CharSequence}s are written on the {@link Schedulers#elastic() elastic scheduler}. The publisher is subscribed
+ * once so its content can be consumed by a single execution only.
+ *
+ * @author Mark Paluch
+ */
+class StreamParameter {
+
+    private final Publisher<?> publisher;
+
+    private final @Nullable
+    SqlType declaredType;
+
+    private volatile @Nullable
+    LobSink sink;
+
+    private StreamParameter(Publisher<?> publisher, @Nullable SqlType declaredType) {
+        this.publisher = publisher;
+        this.declaredType = declaredType;
+    }
+
+    /**
+     * Creates a new {@link StreamParameter} for {@code publisher} determining the large object type from its first
+     * element.
+     *
+     * @param publisher must not be {@literal null}.
+     * @return the {@link StreamParameter} for {@code publisher}.
+     */
+    static StreamParameter create(Publisher<?> publisher) {
+
+        Assert.notNull(publisher, "Publisher must not be null!");
+
+        return new StreamParameter(publisher, null);
+    }
+
+    /**
+     * Creates a new {@link StreamParameter} for a {@link LobStream} declaring the large object type.
+     *
+     * @param stream must not be {@literal null}.
+     * @return the {@link StreamParameter} for {@code stream}.
+     */
+    static StreamParameter create(LobStream stream) {
+
+        Assert.notNull(stream, "LobStream must not be null!");
+
+        return new StreamParameter(stream.getPublisher(), stream.getSqlType());
+    }
+
+    /**
+     * Create the large object and write the publisher content into it. The large object is created once the type is
+     * known, that is, upon the first element or upon completion for a declared type.
+     *
+     * @param group       the {@link OperationGroup} to create the large object in.
+     * @param pipeline    the {@link OperationPipeline} to submit the creation operation through.
+     * @param lobFactory  the {@link LobFactory} creating the large object.
+     * @return a {@link Mono} that completes once the content is written and the large object can be bound.
+     */
+    Mono<Void> write(OperationGroup<Object, Object> group, OperationPipeline pipeline, LobFactory lobFactory) {
+
+        return Flux.from(this.publisher).concatMap(element -> {
+
+            SqlType type = getType(element);
+
+            if (type == null || (this.declaredType != null && this.declaredType != type)) {
+                return Mono.error(new IllegalArgumentException(String.format("Cannot stream %s into a %s, expected ByteBuffer or CharSequence elements of the same type", element.getClass().getName(), this.declaredType != null ? this.declaredType : "large object")));
+            }
+
+            return open(type, group, pipeline, lobFactory).flatMap(sink -> sink.write(element));
+        }, 1).then(Mono.defer(() -> {
+
+            if (this.sink == null && this.declaredType == null) {
+                return Mono.error(new IllegalArgumentException("Cannot determine the large object type of an empty publisher, use LobStream.blob(…) or LobStream.clob(…)"));
+            }
+
+            return open(this.declaredType, group, pipeline, lobFactory).flatMap(LobSink::close);
+        })).onErrorMap(AdbaUtils.exceptionMapper());
+    }
+
+    /**
+     * @return the {@link SqlType} of the written large object, either {@link AdbaType#BLOB} or {@link AdbaType#CLOB}.
+     * @throws IllegalStateException if not yet {@link #write(OperationGroup, OperationPipeline, LobFactory) written}.
+     */
+    SqlType getSqlType() {
+        return getSink().getSqlType();
+    }
+
+    /**
+     * @return the driver-created large object, either {@link SqlBlob} or {@link SqlClob} depending on
+     * {@link #getSqlType()}.
+     * @throws IllegalStateException if not yet {@link #write(OperationGroup, OperationPipeline, LobFactory) written}.
+     */
+    Object getValue() {
+        return getSink().getLob();
+    }
+
+    private LobSink getSink() {
+
+        LobSink sink = this.sink;
+
+        if (sink == null) {
+            throw new IllegalStateException("StreamParameter is not written");
+        }
+
+        return sink;
+    }
+
+    /**
+     * Obtain the {@link LobSink}, creating the large object on first access.
+     */
+    private Mono<LobSink> open(@Nullable SqlType type, OperationGroup<Object, Object> group, OperationPipeline pipeline, LobFactory lobFactory) {
+
+        LobSink sink = this.sink;
+
+        if (sink != null) {
+            return Mono.just(sink);
+        }
+
+        Mono<LobSink> created = type == AdbaType.CLOB ? pipeline.submitLater(() -> lobFactory.clobOperation(group)).map(ClobSink::new)
+                : pipeline.submitLater(() -> lobFactory.blobOperation(group)).map(BlobSink::new);
+
+        return created.doOnNext(it -> this.sink = it);
+    }
+
+    @Nullable
+    private static SqlType getType(Object element) {
+
+        if (element instanceof ByteBuffer) {
+            return AdbaType.BLOB;
+        }
+
+        if (element instanceof CharSequence) {
+            return AdbaType.CLOB;
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes elements into a driver-created large object.
+     */
+    interface LobSink {
+
+        SqlType getSqlType();
+
+        Object getLob();
+
+        Mono<Void> write(Object element);
+
+        Mono<Void> close();
+    }
+
+    /**
+     * {@link LobSink} writing {@link ByteBuffer}s through the {@link SqlBlob#getWriteChannel() BLOB write channel}.
+     */
+    static class BlobSink implements LobSink {
+
+        private final SqlBlob blob;
+
+        private final AsynchronousByteChannel channel;
+
+        BlobSink(SqlBlob blob) {
+            this.blob = blob;
+            this.channel = blob.getWriteChannel();
+        }
+
+        @Override
+        public SqlType getSqlType() {
+            return AdbaType.BLOB;
+        }
+
+        @Override
+        public Object getLob() {
+            return this.blob;
+        }
+
+        @Override
+        public Mono<Void> write(Object element) {
+            return Mono.create(sink -> write((ByteBuffer) element, sink));
+        }
+
+        /**
+         * Write {@code buffer} and continue writing from the completion callback until it is fully written.
+         */
+        private void write(ByteBuffer buffer, MonoSink<Void> sink) {
+
+            this.channel.write(buffer, null, new CompletionHandler<Integer, Object>() {
+
+                @Override
+                public void completed(Integer result, Object attachment) {
+
+                    if (buffer.hasRemaining()) {
+                        write(buffer, sink);
+                    } else {
+                        sink.success();
+                    }
+                }
+
+                @Override
+                public void failed(Throwable exc, Object attachment) {
+                    sink.error(exc);
+                }
+            });
+        }
+
+        @Override
+        public Mono<Void> close() {
+            return Mono.fromCallable(() -> {
+
+                this.channel.close();
+                return this;
+            }).then();
+        }
+    }
+
+    /**
+     * {@link LobSink} writing {@link CharSequence}s through the blocking {@link SqlClob#getWriter() CLOB writer} on the
+     * {@link Schedulers#elastic() elastic scheduler}.
+     */
+    static class ClobSink implements LobSink {
+
+        private final SqlClob clob;
+
+        private final Writer writer;
+
+        ClobSink(SqlClob clob) {
+            this.clob = clob;
+            this.writer = clob.getWriter();
+        }
+
+        @Override
+        public SqlType getSqlType() {
+            return AdbaType.CLOB;
+        }
+
+        @Override
+        public Object getLob() {
+            return this.clob;
+        }
+
+        @Override
+        public Mono<Void> write(Object element) {
+            return Mono.fromCallable(() -> this.writer.append((CharSequence) element)).subscribeOn(Schedulers.elastic()).then();
+        }
+
+        @Override
+        public Mono<Void> close() {
+            return Mono.fromCallable(() -> {
+
+                this.writer.close();
+                return this;
+            }).subscribeOn(Schedulers.elastic()).then();
+        }
+    }
+}
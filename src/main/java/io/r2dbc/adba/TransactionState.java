@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.TransactionCompletion;
+import reactor.util.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link TransactionCompletion} of the transaction that is currently active on a session. A transaction is
+ * active from {@link #begin(Supplier)} until it is {@link #take() taken} to end it.
+ *
+ * @author Mark Paluch
+ */
+class TransactionState {
+
+    private final AtomicReference<TransactionCompletion> current = new AtomicReference<>();
+
+    /**
+     * Begin a transaction if no transaction is active.
+     *
+     * @param transactionFactory supplier for a new {@link TransactionCompletion}, must not be {@literal null}.
+     * @return {@literal true} if a new transaction was started.
+     */
+    boolean begin(Supplier<TransactionCompletion> transactionFactory) {
+
+        if (this.current.get() != null) {
+            return false;
+        }
+
+        return this.current.compareAndSet(null, transactionFactory.get());
+    }
+
+    /**
+     * Remove and return the active {@link TransactionCompletion} to end the transaction.
+     *
+     * @return the active {@link TransactionCompletion} or {@literal null} if no transaction is active.
+     */
+    @Nullable
+    TransactionCompletion take() {
+        return this.current.getAndSet(null);
+    }
+
+    /**
+     * Restore a {@link TransactionCompletion} that was {@link #take() taken} but whose transaction did not end, e.g.
+     * because a preceding operation failed.
+     *
+     * @param transactionCompletion must not be {@literal null}.
+     */
+    void restore(TransactionCompletion transactionCompletion) {
+        this.current.compareAndSet(null, transactionCompletion);
+    }
+
+    /**
+     * @return {@literal true} if a transaction is active.
+     */
+    boolean isActive() {
+        return this.current.get() != null;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.spi.Result;
+import jdk.incubator.sql2.OperationGroup;
+import jdk.incubator.sql2.ParameterizedRowCountOperation;
+import jdk.incubator.sql2.Session;
+import jdk.incubator.sql2.Submission;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AdbaBatch}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+class AdbaBatchUnitTests {
+
+    @Mock
+    Session session;
+    @Mock
+    OperationGroup<Object, Object> group;
+    @Mock(answer = Answers.RETURNS_SELF)
+    ParameterizedRowCountOperation<Object> insert;
+    @Mock(answer = Answers.RETURNS_SELF)
+    ParameterizedRowCountOperation<Object> update;
+    @Mock
+    Submission<Object> submission;
+
+    @Test
+    void shouldSubmitAllMembersBeforeEmittingResults() {
+
+        CompletableFuture<Object> insertCount = new CompletableFuture<>();
+        Submission<Object> insertSubmission = mock(Submission.class);
+
+        doReturn(group).when(session).operationGroup();
+        doReturn(submission).when(group).submit();
+        doReturn(insert).when(group).rowCountOperation("INSERT");
+        doReturn(update).when(group).rowCountOperation("UPDATE");
+        doReturn(insertSubmission).when(insert).submit();
+        doReturn(insertCount).when(insertSubmission).getCompletionStage();
+        doReturn(submission).when(update).submit();
+        doReturn(CompletableFuture.completedFuture(2L)).when(submission).getCompletionStage();
+
+        AdbaBatch.create(session).add("INSERT").add("UPDATE").execute() //
+                .concatMap(Result::getRowsUpdated) //
+                .as(StepVerifier::create) //
+                .then(() -> {
+
+                    InOrder inOrder = inOrder(group, insert, update);
+                    inOrder.verify(insert).submit();
+                    inOrder.verify(update).submit();
+                    inOrder.verify(group).close();
+
+                    insertCount.complete(1L);
+                }) //
+                .expectNext(1, 2) //
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectStatementsReturningRows() {
+
+        AdbaBatch batch = AdbaBatch.create(session);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> batch.add("SELECT * FROM person"));
+        assertThatIllegalArgumentException().isThrownBy(() -> batch.add("  with t AS (SELECT 1) SELECT * FROM t"));
+        assertThatIllegalArgumentException().isThrownBy(() -> batch.add("INSERT INTO person VALUES (1) RETURNING id"));
+
+        batch.add("INSERT INTO person (name) VALUES ('select returning')").add("/* SELECT */ DELETE FROM person");
+
+        verifyZeroInteractions(session);
+    }
+
+    @Test
+    void emptyBatchShouldNotSubmitOperations() {
+
+        AdbaBatch.create(session).execute().as(StepVerifier::create).verifyComplete();
+
+        verifyZeroInteractions(session);
+    }
+}
@@ -16,9 +16,17 @@
 package io.r2dbc.adba;
 
 import io.r2dbc.adba.mock.MockDataSource;
+import io.r2dbc.adba.mock.MockOperation;
+import io.r2dbc.adba.mock.MockSession;
+import io.r2dbc.adba.mock.MockSubmission;
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactoryMetadata;
+import jdk.incubator.sql2.Session;
 import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -37,4 +45,58 @@ class AdbaConnectionFactoryUnitTests {
 
         assertThat(metadata.getName()).isEqualTo("ADBA Adapter");
     }
+
+    @Test
+    void shouldCompleteAfterAttach() {
+
+        MockSession session = new MockSession();
+        AdbaConnectionFactory connectionFactory = AdbaConnectionFactory.create(MockDataSource.newMockBuilder().singletonConnection(session).build());
+
+        connectionFactory.create().as(StepVerifier::create).expectNextCount(1).verifyComplete();
+
+        assertThat(session.getSessionLifecycle()).isEqualTo(Session.Lifecycle.ATTACHED);
+    }
+
+    @Test
+    void shouldCloseSessionIfAttachFails() {
+
+        MockSession session = new MockSession();
+        session.attachOperation().completeWithError(new IllegalStateException("Connection refused"));
+        AdbaConnectionFactory connectionFactory = AdbaConnectionFactory.create(MockDataSource.newMockBuilder().singletonConnection(session).build());
+
+        connectionFactory.create().as(StepVerifier::create).verifyError(AdbaException.class);
+
+        assertThat(session.getSessionLifecycle()).isEqualTo(Session.Lifecycle.CLOSED);
+    }
+
+    @Test
+    void shouldFailWithTimeoutIfAttachDoesNotComplete() {
+
+        MockOperation<Void> attachOperation = new MockOperation<Void>() {
+
+            @Override
+            public MockSubmission<Void> submit() {
+                return new MockSubmission<>(new CompletableFuture<>());
+            }
+        };
+
+        MockSession session = new MockSession() {
+
+            @Override
+            public MockOperation<Void> attachOperation() {
+                return attachOperation;
+            }
+        };
+
+        AdbaConnectionFactory connectionFactory = AdbaConnectionFactory.create(MockDataSource.newMockBuilder().singletonConnection(session).build(),
+                AdbaOptions.create().withConnectTimeout(Duration.ofSeconds(5)));
+
+        StepVerifier.withVirtualTime(connectionFactory::create) //
+                .expectSubscription() //
+                .thenAwait(Duration.ofSeconds(5)) //
+                .verifyError(AdbaTimeoutException.class);
+
+        assertThat(attachOperation.getTimeout()).isEqualTo(Duration.ZERO);
+        assertThat(session.getSessionLifecycle()).isEqualTo(Session.Lifecycle.CLOSED);
+    }
 }
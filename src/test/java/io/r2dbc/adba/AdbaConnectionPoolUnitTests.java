@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.adba.mock.MockDataSource;
+import io.r2dbc.adba.mock.MockSession;
+import io.r2dbc.spi.Connection;
+import jdk.incubator.sql2.Session;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdbaConnectionPool}.
+ *
+ * @author Mark Paluch
+ */
+class AdbaConnectionPoolUnitTests {
+
+    List<MockSession> sessions = new ArrayList<>();
+
+    AtomicLong clock = new AtomicLong();
+
+    MockDataSource dataSource = MockDataSource.newMockBuilder().withConnectionSupplier(properties -> {
+
+        MockSession session = new MockSession();
+        sessions.add(session);
+        return session;
+    }).build();
+
+    @Test
+    void shouldReuseReleasedConnection() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create());
+
+        Connection first = pool.create().block();
+        first.close().block();
+
+        Connection second = pool.create().block();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(sessions).hasSize(1);
+        assertThat(pool.getAllocatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldQueueAcquisitionsAtMaxSize() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create().withMaxSize(1));
+
+        Connection first = pool.create().block();
+        CompletableFuture<AdbaConnection> second = pool.create().toFuture();
+
+        assertThat(second).isNotDone();
+        assertThat(pool.getPendingAcquireSize()).isEqualTo(1);
+
+        first.close().block();
+
+        assertThat(second).isDone();
+        assertThat(sessions).hasSize(1);
+        assertThat(pool.getPendingAcquireSize()).isZero();
+    }
+
+    @Test
+    void shouldRejectAcquisitionsBeyondPendingLimit() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create().withMaxSize(1).withMaxPendingAcquires(0));
+
+        pool.create().block();
+
+        pool.create().as(StepVerifier::create).verifyError(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldReleaseOnlyOnce() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create());
+
+        Connection connection = pool.create().block();
+        connection.close().block();
+        connection.close().block();
+
+        assertThat(pool.getIdleSize()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDiscardConnectionsFailingValidation() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create().withValidationDepth(Session.Validation.SOCKET));
+
+        pool.create().block().close().block();
+        sessions.get(0).validationOperation(Session.Validation.SOCKET).completeWithError(new IllegalStateException());
+
+        pool.create().block();
+
+        assertThat(sessions).hasSize(2);
+        assertThat(sessions.get(0).getSessionLifecycle()).isEqualTo(Session.Lifecycle.CLOSED);
+        assertThat(pool.getAllocatedSize()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictIdleConnections() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create().withMaxIdleTime(Duration.ofSeconds(1)));
+
+        pool.create().block().close().block();
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        pool.create().block();
+
+        assertThat(sessions).hasSize(2);
+        assertThat(sessions.get(0).getSessionLifecycle()).isEqualTo(Session.Lifecycle.CLOSED);
+    }
+
+    @Test
+    void shouldCloseConnectionsExceedingLifetimeOnRelease() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create().withMaxLifeTime(Duration.ofSeconds(1)));
+
+        Connection connection = pool.create().block();
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        connection.close().block();
+
+        assertThat(pool.getAllocatedSize()).isZero();
+        assertThat(sessions.get(0).getSessionLifecycle()).isEqualTo(Session.Lifecycle.CLOSED);
+    }
+
+    @Test
+    void shouldEstablishMinimumSize() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create().withMinSize(3));
+
+        pool.create().block();
+
+        assertThat(pool.getAllocatedSize()).isEqualTo(3);
+        assertThat(pool.getIdleSize()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFailAcquisitionWhenMinimumSizeCannotBeEstablished() {
+
+        MockDataSource unreachable = MockDataSource.newMockBuilder().withConnectionSupplier(properties -> {
+            throw new IllegalStateException("unreachable");
+        }).build();
+
+        AdbaConnectionPool pool = AdbaConnectionPool.create(AdbaConnectionFactory.create(unreachable), AdbaPoolOptions.create().withMinSize(2), clock::get);
+
+        pool.create().as(StepVerifier::create).verifyError();
+
+        assertThat(pool.getAllocatedSize()).isZero();
+    }
+
+    @Test
+    void evictionShouldCloseIdleConnectionsWithoutPoolActivity() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create().withMaxIdleTime(Duration.ofSeconds(1)));
+
+        pool.create().block().close().block();
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        pool.evict();
+
+        assertThat(pool.getIdleSize()).isZero();
+        assertThat(sessions.get(0).getSessionLifecycle()).isEqualTo(Session.Lifecycle.CLOSED);
+    }
+
+    @Test
+    void closeShouldFailPendingAcquisitionsAndCloseIdleConnections() {
+
+        AdbaConnectionPool pool = createPool(AdbaPoolOptions.create().withMaxSize(1));
+
+        Connection connection = pool.create().block();
+        CompletableFuture<AdbaConnection> pending = pool.create().toFuture();
+
+        pool.close().as(StepVerifier::create).verifyComplete();
+
+        assertThat(pending).isCompletedExceptionally();
+
+        connection.close().block();
+
+        assertThat(pool.getAllocatedSize()).isZero();
+        assertThat(sessions.get(0).getSessionLifecycle()).isEqualTo(Session.Lifecycle.CLOSED);
+    }
+
+    private AdbaConnectionPool createPool(AdbaPoolOptions options) {
+        return AdbaConnectionPool.create(AdbaConnectionFactory.create(dataSource), options, clock::get);
+    }
+}
@@ -15,20 +15,36 @@
  */
 package io.r2dbc.adba;
 
+import io.r2dbc.adba.mock.MockRowColumn;
 import io.r2dbc.adba.mock.MockTransaction;
+import io.r2dbc.adba.mock.ResultBuilder;
 import io.r2dbc.spi.IsolationLevel;
+import jdk.incubator.sql2.AdbaType;
 import jdk.incubator.sql2.Operation;
+import jdk.incubator.sql2.OperationGroup;
+import jdk.incubator.sql2.ParameterizedRowCountOperation;
+import jdk.incubator.sql2.ParameterizedRowPublisherOperation;
+import jdk.incubator.sql2.Result;
 import jdk.incubator.sql2.Session;
 import jdk.incubator.sql2.Submission;
 import jdk.incubator.sql2.TransactionOutcome;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -61,8 +77,21 @@ class AdbaConnectionUnitTests {
     void beginTransaction() {
 
         sut.beginTransaction().as(StepVerifier::create).verifyComplete();
+        sut.beginTransaction().as(StepVerifier::create).verifyComplete();
 
-        verifyZeroInteractions(session);
+        verify(session).transactionCompletion();
+        verifyNoMoreInteractions(session);
+    }
+
+    @Test
+    void createStatementShouldUseStatementCache() {
+
+        sut.createStatement("SELECT 1");
+        sut.createStatement("SELECT 1");
+
+        assertThat(sut.getStatementCacheMetrics().getMisses()).isEqualTo(1);
+        assertThat(sut.getStatementCacheMetrics().getHits()).isEqualTo(1);
+        assertThat(sut.lease(Mono::empty).getStatementCacheMetrics()).isSameAs(sut.getStatementCacheMetrics());
     }
 
     @Test
@@ -72,17 +101,206 @@ class AdbaConnectionUnitTests {
         when(session.transactionCompletion()).thenReturn(mockTransaction);
         when(session.commitMaybeRollback(mockTransaction)).thenReturn(CompletableFuture.completedFuture(TransactionOutcome.COMMIT));
 
+        sut.beginTransaction().as(StepVerifier::create).verifyComplete();
         sut.commitTransaction().as(StepVerifier::create).verifyComplete();
         verify(session).commitMaybeRollback(mockTransaction);
+        assertThat(mockTransaction.isRollbackOnly()).isFalse();
+    }
+
+    @Test
+    void commitWithoutTrackedTransactionShouldEndSessionTransaction() {
+
+        MockTransaction commit = new MockTransaction();
+        MockTransaction rollback = new MockTransaction();
+        when(session.transactionCompletion()).thenReturn(commit, rollback);
+        when(session.commitMaybeRollback(any())).thenReturn(CompletableFuture.completedFuture(TransactionOutcome.COMMIT));
+
+        sut.commitTransaction().as(StepVerifier::create).verifyComplete();
+        sut.rollbackTransaction().as(StepVerifier::create).verifyComplete();
+
+        verify(session).commitMaybeRollback(commit);
+        verify(session).commitMaybeRollback(rollback);
+        assertThat(commit.isRollbackOnly()).isFalse();
+        assertThat(rollback.isRollbackOnly()).isTrue();
     }
 
     @Test
     void rollbackTransaction() {
 
-        when(session.rollback()).thenReturn(CompletableFuture.completedFuture(TransactionOutcome.COMMIT));
+        MockTransaction mockTransaction = new MockTransaction();
+        when(session.transactionCompletion()).thenReturn(mockTransaction);
+        when(session.commitMaybeRollback(mockTransaction)).thenReturn(CompletableFuture.completedFuture(TransactionOutcome.ROLLBACK));
 
+        sut.beginTransaction().as(StepVerifier::create).verifyComplete();
         sut.rollbackTransaction().as(StepVerifier::create).verifyComplete();
-        verify(session).rollback();
+        verify(session).commitMaybeRollback(mockTransaction);
+        assertThat(mockTransaction.isRollbackOnly()).isTrue();
+    }
+
+    @Test
+    void statementShouldCommitWithinOperationGroup() {
+
+        MockTransaction mockTransaction = new MockTransaction();
+        OperationGroup<Object, Object> group = mock(OperationGroup.class);
+        ParameterizedRowCountOperation<Object> update = mock(ParameterizedRowCountOperation.class, Answers.RETURNS_SELF);
+        Submission<Object> updateSubmission = mock(Submission.class);
+        Submission<Object> commitSubmission = mock(Submission.class);
+
+        when(session.transactionCompletion()).thenReturn(mockTransaction);
+        doReturn(group).when(session).operationGroup();
+        when(group.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(new CompletableFuture<>());
+        doReturn(update).when(group).rowCountOperation("UPDATE");
+        doReturn(updateSubmission).when(update).submit();
+        when(updateSubmission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(1L));
+        doReturn(operation).when(group).endTransactionOperation(mockTransaction);
+        doReturn(commitSubmission).when(operation).submit();
+        when(commitSubmission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(TransactionOutcome.COMMIT));
+
+        sut.beginTransaction().then(sut.createStatement("UPDATE").andCommit().execute()) //
+                .flatMapMany(AdbaStatement.AdbaResult::getRowsUpdated) //
+                .as(StepVerifier::create) //
+                .expectNext(1) //
+                .verifyComplete();
+
+        InOrder inOrder = inOrder(group, update, operation);
+        inOrder.verify(group).submit();
+        inOrder.verify(update).submit();
+        inOrder.verify(operation).submit();
+        inOrder.verify(group).close();
+    }
+
+    @Test
+    void statementShouldSubmitCommitBeforeResultIsConsumed() {
+
+        MockTransaction mockTransaction = new MockTransaction();
+        OperationGroup<Object, Object> group = mock(OperationGroup.class);
+        ParameterizedRowCountOperation<Object> update = mock(ParameterizedRowCountOperation.class, Answers.RETURNS_SELF);
+        Submission<Object> updateSubmission = mock(Submission.class);
+        Submission<Object> commitSubmission = mock(Submission.class);
+        CompletableFuture<Object> updateCount = new CompletableFuture<>();
+        CompletableFuture<Object> commitOutcome = new CompletableFuture<>();
+
+        when(session.transactionCompletion()).thenReturn(mockTransaction);
+        doReturn(group).when(session).operationGroup();
+        when(group.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(new CompletableFuture<>());
+        doReturn(update).when(group).rowCountOperation("UPDATE");
+        doReturn(updateSubmission).when(update).submit();
+        when(updateSubmission.getCompletionStage()).thenReturn(updateCount);
+        doReturn(operation).when(group).endTransactionOperation(mockTransaction);
+        doReturn(commitSubmission).when(operation).submit();
+        when(commitSubmission.getCompletionStage()).thenReturn(commitOutcome);
+
+        sut.beginTransaction().then(sut.createStatement("UPDATE").andCommit().execute()) //
+                .flatMapMany(AdbaStatement.AdbaResult::getRowsUpdated) //
+                .as(StepVerifier::create) //
+                .then(() -> {
+
+                    // statement and commit are submitted together, before the statement completes
+                    InOrder inOrder = inOrder(group, update, operation);
+                    inOrder.verify(group).submit();
+                    inOrder.verify(update).submit();
+                    inOrder.verify(operation).submit();
+                    inOrder.verify(group).close();
+
+                    updateCount.complete(1L);
+                }) //
+                .expectNext(1) //
+                .then(() -> commitOutcome.completeExceptionally(new IllegalStateException("commit failed"))) //
+                .verifyError(AdbaException.class);
+    }
+
+    @Test
+    void cancelShouldCancelRowOperationSubmission() {
+
+        ParameterizedRowPublisherOperation<Object> select = mock(ParameterizedRowPublisherOperation.class, Answers.RETURNS_SELF);
+
+        doReturn(select).when(session).rowPublisherOperation("SELECT");
+        doReturn(submission).when(select).submit();
+        when(submission.cancel()).thenReturn(CompletableFuture.completedFuture(true));
+
+        sut.createStatement("SELECT").execute().flatMapMany(result -> result.map((row, metadata) -> row)) //
+                .as(it -> StepVerifier.create(it, 0)) //
+                .thenRequest(1) //
+                .then(() -> verify(select).submit()) //
+                .thenCancel() //
+                .verify();
+
+        verify(submission).cancel();
+    }
+
+    @Test
+    void rowOperationShouldReleasePipelineSlotOnceSubmitted() {
+
+        sut = AdbaConnection.create(session, AdbaOptions.create().withPipelineDepth(1));
+
+        ParameterizedRowPublisherOperation<Object> select = mock(ParameterizedRowPublisherOperation.class, Answers.RETURNS_SELF);
+        ParameterizedRowCountOperation<Object> update = mock(ParameterizedRowCountOperation.class, Answers.RETURNS_SELF);
+        Submission<Object> updateSubmission = mock(Submission.class);
+
+        doReturn(select).when(session).rowPublisherOperation("SELECT");
+        doReturn(submission).when(select).submit();
+        doReturn(update).when(session).rowCountOperation("UPDATE");
+        doReturn(updateSubmission).when(update).submit();
+        when(updateSubmission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(1L));
+
+        // rows of SELECT are not consumed while UPDATE runs
+        sut.createStatement("SELECT").execute().flatMapMany(result -> result.map((row, metadata) -> row)) //
+                .as(it -> StepVerifier.create(it, 0)) //
+                .thenRequest(1) //
+                .then(() -> {
+
+                    assertThat(sut.getPipeline().getInFlight()).isZero();
+
+                    sut.createStatement("UPDATE").execute().flatMapMany(AdbaStatement.AdbaResult::getRowsUpdated) //
+                            .as(StepVerifier::create) //
+                            .expectNext(1) //
+                            .verifyComplete();
+                }) //
+                .thenCancel() //
+                .verify();
+    }
+
+    @Test
+    void statementAfterTakeShouldNotAwaitCancelledOperation() {
+
+        sut = AdbaConnection.create(session, AdbaOptions.create().withPipelineDepth(1));
+
+        ParameterizedRowPublisherOperation<Object> select = mock(ParameterizedRowPublisherOperation.class, Answers.RETURNS_SELF);
+        ParameterizedRowCountOperation<Object> update = mock(ParameterizedRowCountOperation.class, Answers.RETURNS_SELF);
+        Submission<Object> updateSubmission = mock(Submission.class);
+        Flow.Subscription subscription = mock(Flow.Subscription.class);
+        AtomicReference<Flow.Subscriber<? super Result.RowColumn>> subscriber = new AtomicReference<>();
+        List<MockRowColumn> rows = ResultBuilder.builder().withColumn("id", AdbaType.INTEGER).andResult().withRow(1).withRow(2).build();
+
+        doReturn(select).when(session).rowPublisherOperation("SELECT");
+        doAnswer(invocation -> {
+            subscriber.set(invocation.getArgument(0));
+            return select;
+        }).when(select).subscribe(any(), any());
+        doReturn(submission).when(select).submit();
+        doReturn(update).when(session).rowCountOperation("UPDATE");
+        doReturn(updateSubmission).when(update).submit();
+        when(updateSubmission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(1L));
+
+        // the cancelled SELECT never completes its submission
+        sut.createStatement("SELECT").execute().flatMapMany(result -> result.map((row, metadata) -> row.get("id", Integer.class))).take(1) //
+                .as(StepVerifier::create) //
+                .then(() -> {
+                    subscriber.get().onSubscribe(subscription);
+                    subscriber.get().onNext(rows.get(0));
+                }) //
+                .expectNext(1) //
+                .verifyComplete();
+
+        verify(subscription).cancel();
+        verify(submission).cancel();
+
+        sut.createStatement("UPDATE").execute().flatMapMany(AdbaStatement.AdbaResult::getRowsUpdated) //
+                .as(StepVerifier::create) //
+                .expectNext(1) //
+                .verifyComplete();
     }
 
     @Test
@@ -106,26 +324,267 @@ class AdbaConnectionUnitTests {
 
     @Test
     void createBatch() {
-        assertThatThrownBy(sut::createBatch).isInstanceOf(UnsupportedOperationException.class);
+
+        AdbaBatch batch = sut.createBatch();
+
+        assertThat(batch).isNotNull();
+    }
+
+    @Test
+    void executeIndependentlyShouldUseParallelIndependentGroup() {
+
+        OperationGroup<Object, Object> group = mock(OperationGroup.class);
+        ParameterizedRowCountOperation<Object> first = mock(ParameterizedRowCountOperation.class, Answers.RETURNS_SELF);
+        ParameterizedRowCountOperation<Object> second = mock(ParameterizedRowCountOperation.class, Answers.RETURNS_SELF);
+        Submission<Object> firstSubmission = mock(Submission.class);
+        Submission<Object> secondSubmission = mock(Submission.class);
+
+        doReturn(group).when(session).operationGroup();
+        when(group.parallel()).thenReturn(group);
+        when(group.independent()).thenReturn(group);
+        when(group.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(new CompletableFuture<>());
+        doReturn(first).when(group).rowCountOperation("UPDATE a");
+        doReturn(second).when(group).rowCountOperation("UPDATE b");
+        doReturn(firstSubmission).when(first).submit();
+        doReturn(secondSubmission).when(second).submit();
+
+        CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException());
+        when(firstSubmission.getCompletionStage()).thenReturn(failed);
+        when(secondSubmission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(2L));
+
+        sut.executeIndependently(Arrays.asList(sut.createStatement("UPDATE a"), sut.createStatement("UPDATE b")), AdbaStatement.AdbaResult::getRowsUpdated) //
+                .as(StepVerifier::create) //
+                .expectNext(2) //
+                .verifyError(AdbaException.class);
+
+        InOrder inOrder = inOrder(group);
+        inOrder.verify(group).parallel();
+        inOrder.verify(group).independent();
+        inOrder.verify(group).submit();
+        inOrder.verify(group).close();
+    }
+
+    @Test
+    void setTransactionIsolationLevelShouldApplyToNextTransaction() {
+
+        Operation closeOperation = mock(Operation.class);
+        when(session.transactionCompletion()).thenReturn(new MockTransaction());
+        doReturn(operation).when(session).operation(anyString());
+        when(operation.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(null));
+        when(session.closeOperation()).thenReturn(closeOperation);
+        when(closeOperation.submit()).thenReturn(submission);
+
+        sut.setTransactionIsolationLevel(IsolationLevel.SERIALIZABLE).as(StepVerifier::create).verifyComplete();
+        sut.setTransactionIsolationLevel(IsolationLevel.SERIALIZABLE).as(StepVerifier::create).verifyComplete();
+        sut.beginTransaction().as(StepVerifier::create).verifyComplete();
+
+        verify(session, never()).operation(anyString());
+
+        sut.close().as(StepVerifier::create).verifyComplete();
+
+        InOrder inOrder = inOrder(session, operation, closeOperation);
+        inOrder.verify(session).operation("SET TRANSACTION ISOLATION LEVEL SERIALIZABLE");
+        inOrder.verify(operation).submit();
+        inOrder.verify(closeOperation).submit();
+        verify(session, times(1)).operation(anyString());
+    }
+
+    @Test
+    void setTransactionIsolationLevelShouldNotAffectActiveTransaction() {
+
+        when(session.transactionCompletion()).thenReturn(new MockTransaction());
+
+        sut.beginTransaction().then(sut.setTransactionIsolationLevel(IsolationLevel.READ_COMMITTED)).as(StepVerifier::create).verifyComplete();
+        sut.getPipeline().enqueue(() -> CompletableFuture.completedFuture(null), e -> {});
+
+        verify(session, never()).operation(anyString());
+    }
+
+    @Test
+    void setTransactionIsolationLevelShouldApplyToEachTransaction() {
+
+        when(session.transactionCompletion()).thenReturn(new MockTransaction());
+        when(session.commitMaybeRollback(any())).thenReturn(CompletableFuture.completedFuture(TransactionOutcome.COMMIT));
+        doReturn(operation).when(session).operation(anyString());
+        when(operation.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(null));
+
+        sut.beginTransaction().then(sut.setTransactionIsolationLevel(IsolationLevel.READ_COMMITTED)).then(sut.commitTransaction()).as(StepVerifier::create).verifyComplete();
+        sut.beginTransaction().as(StepVerifier::create).verifyComplete();
+        sut.getPipeline().enqueue(() -> CompletableFuture.completedFuture(null), e -> {});
+
+        verify(session).operation("SET TRANSACTION ISOLATION LEVEL READ COMMITTED");
+    }
+
+    @Test
+    void shouldRejectInvalidSavepointName() {
+
+        assertThatThrownBy(() -> sut.createSavepoint("foo; DROP TABLE bar")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sut.releaseSavepoint("\"foo\"")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sut.rollbackTransactionToSavepoint("1foo")).isInstanceOf(IllegalArgumentException.class);
+
+        verifyZeroInteractions(session);
+    }
+
+    @Test
+    void failingCommandShouldFailNextOperation() {
+
+        Submission failed = mock(Submission.class);
+        CompletableFuture<Object> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException());
+
+        doReturn(operation).when(session).operation(anyString());
+        when(operation.submit()).thenReturn(failed);
+        when(failed.getCompletionStage()).thenReturn(failure);
+        Operation closeOperation = mock(Operation.class);
+        when(session.closeOperation()).thenReturn(closeOperation);
+        when(closeOperation.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(new CompletableFuture<>());
+
+        sut.createSavepoint("foo").as(StepVerifier::create).verifyComplete();
+
+        sut.close().as(StepVerifier::create).verifyErrorSatisfies(e -> assertThat(e).hasRootCauseInstanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    void commandFailingToSubmitShouldFailNextOperation() {
+
+        when(session.operation(anyString())).thenThrow(new IllegalStateException());
+
+        sut.createSavepoint("foo").as(StepVerifier::create).verifyComplete();
+
+        sut.close().as(StepVerifier::create).verifyErrorSatisfies(e -> assertThat(e).hasRootCauseInstanceOf(IllegalStateException.class));
+        verify(session, never()).closeOperation();
+    }
+
+    @Test
+    void releasingLeaseShouldDiscardSessionState() {
+
+        when(session.transactionCompletion()).thenReturn(new MockTransaction());
+        when(session.commitMaybeRollback(any())).thenReturn(CompletableFuture.completedFuture(TransactionOutcome.ROLLBACK));
+
+        AdbaConnection lease = sut.lease(Mono::empty);
+
+        lease.setTransactionIsolationLevel(IsolationLevel.SERIALIZABLE).then(lease.createSavepoint("foo")).as(StepVerifier::create).verifyComplete();
+        lease.close().as(StepVerifier::create).verifyComplete();
+
+        assertThat(sut.getPipeline().getDeferred()).isZero();
+
+        sut.beginTransaction().as(StepVerifier::create).verifyComplete();
+
+        assertThat(sut.getPipeline().getDeferred()).isZero();
+        verify(session, never()).operation(anyString());
+    }
+
+    @Test
+    void shouldElideReleaseOfPendingSavepoint() {
+
+        when(session.closeOperation()).thenReturn(operation);
+        when(operation.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(null));
+
+        sut.createSavepoint("foo").then(sut.releaseSavepoint("foo")).as(StepVerifier::create).verifyComplete();
+        sut.close().as(StepVerifier::create).verifyComplete();
+
+        verify(session, never()).operation(anyString());
+    }
+
+    @Test
+    void rollbackToSavepointShouldIssueCommandOnceSavepointWasSubmitted() {
+
+        doReturn(operation).when(session).operation(anyString());
+        when(operation.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture(null));
+
+        sut.createSavepoint("foo").then(sut.rollbackTransactionToSavepoint("foo")).as(StepVerifier::create).verifyComplete();
+        sut.getPipeline().enqueue(() -> CompletableFuture.completedFuture(null), e -> {});
+
+        verify(session).operation("SAVEPOINT foo");
+        verify(session, times(1)).operation(anyString());
+
+        sut.rollbackTransactionToSavepoint("foo").then(sut.releaseSavepoint("foo")).as(StepVerifier::create).verifyComplete();
+        sut.getPipeline().enqueue(() -> CompletableFuture.completedFuture(null), e -> {});
+
+        InOrder inOrder = inOrder(session);
+        inOrder.verify(session).operation("ROLLBACK TO SAVEPOINT foo");
+        inOrder.verify(session).operation("RELEASE SAVEPOINT foo");
+    }
+
+    @Test
+    void releasingLeaseShouldRollBackSessionTransaction() {
+
+        MockTransaction mockTransaction = new MockTransaction();
+        when(session.transactionCompletion()).thenReturn(mockTransaction);
+        when(session.commitMaybeRollback(mockTransaction)).thenReturn(CompletableFuture.completedFuture(TransactionOutcome.ROLLBACK));
+        AtomicBoolean released = new AtomicBoolean();
+        AdbaConnection lease = sut.lease(() -> Mono.fromRunnable(() -> released.set(true)));
+
+        lease.beginTransaction().then(lease.close()).as(StepVerifier::create).verifyComplete();
+
+        verify(session).commitMaybeRollback(mockTransaction);
+        assertThat(mockTransaction.isRollbackOnly()).isTrue();
+        assertThat(released).isTrue();
     }
 
     @Test
-    void createSavepoint() {
-        assertThatThrownBy(() -> sut.createSavepoint("foo")).isInstanceOf(UnsupportedOperationException.class);
+    void releasingLeaseWithoutTransactionShouldNotRollBack() {
+
+        AtomicBoolean released = new AtomicBoolean();
+
+        sut.lease(() -> Mono.fromRunnable(() -> released.set(true))).close().as(StepVerifier::create).verifyComplete();
+
+        assertThat(released).isTrue();
+        verifyZeroInteractions(session);
     }
 
     @Test
-    void releaseSavepoint() {
-        assertThatThrownBy(() -> sut.releaseSavepoint("foo")).isInstanceOf(UnsupportedOperationException.class);
+    void releasedLeaseShouldNotAffectNextBorrower() {
+
+        AtomicInteger releases = new AtomicInteger();
+        AdbaConnection lease = sut.lease(() -> Mono.fromRunnable(releases::incrementAndGet));
+
+        lease.close().as(StepVerifier::create).verifyComplete();
+
+        AdbaConnection next = sut.lease(Mono::empty);
+        next.createSavepoint("foo").as(StepVerifier::create).verifyComplete();
+
+        lease.close().as(StepVerifier::create).verifyComplete();
+
+        assertThat(releases).hasValue(1);
+        assertThat(sut.getPipeline().getDeferred()).isEqualTo(1);
+        verifyZeroInteractions(session);
     }
 
     @Test
-    void rollbackTransactionToSavepoint() {
-        assertThatThrownBy(() -> sut.rollbackTransactionToSavepoint("foo")).isInstanceOf(UnsupportedOperationException.class);
+    void releasedLeaseShouldRejectOperations() {
+
+        AdbaConnection lease = sut.lease(Mono::empty);
+
+        lease.close().as(StepVerifier::create).verifyComplete();
+
+        assertThatThrownBy(() -> lease.createStatement("SELECT 1")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(lease::createBatch).isInstanceOf(IllegalStateException.class);
+        lease.beginTransaction().as(StepVerifier::create).verifyError(IllegalStateException.class);
+        lease.commitTransaction().as(StepVerifier::create).verifyError(IllegalStateException.class);
+        lease.createSavepoint("foo").as(StepVerifier::create).verifyError(IllegalStateException.class);
+        verifyZeroInteractions(session);
     }
 
     @Test
-    void setTransactionIsolationLevel() {
-        assertThatThrownBy(() -> sut.setTransactionIsolationLevel(IsolationLevel.READ_COMMITTED)).isInstanceOf(UnsupportedOperationException.class);
+    void releasingLeaseShouldReleaseIfRollbackFails() {
+
+        CompletableFuture<TransactionOutcome> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException());
+        when(session.transactionCompletion()).thenReturn(new MockTransaction());
+        when(session.commitMaybeRollback(any())).thenReturn(failure);
+        AtomicBoolean released = new AtomicBoolean();
+        AdbaConnection lease = sut.lease(() -> Mono.fromRunnable(() -> released.set(true)));
+
+        lease.beginTransaction().then(lease.close()).as(StepVerifier::create).verifyError();
+
+        assertThat(released).isTrue();
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.adba.mock.MockRowColumn;
+import io.r2dbc.adba.mock.ResultBuilder;
+import jdk.incubator.sql2.AdbaType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AdbaRowMetadata}.
+ *
+ * @author Mark Paluch
+ */
+class AdbaRowMetadataUnitTests {
+
+    List<MockRowColumn> resultset = ResultBuilder.builder() //
+            .withColumn("id", AdbaType.INTEGER) //
+            .withColumn("name", AdbaType.VARCHAR) //
+            .andResult() //
+            .withRow(1, "foo") //
+            .build();
+
+    @Test
+    void shouldCreateMetadataForAllColumns() {
+
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(resultset.get(0));
+
+        assertThat(metadata.getColumnMetadatas()).extracting(it -> it.getName()).containsExactly("id", "name");
+        assertThat(metadata.getColumnMetadatas()).extracting(it -> it.getIndex()).containsExactly(1, 2);
+    }
+
+    @Test
+    void shouldMatchAllColumns() {
+
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(resultset.get(0));
+
+        List<MockRowColumn> otherResult = ResultBuilder.builder() //
+                .withColumn("id", AdbaType.INTEGER) //
+                .withColumn("other", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow(1, "foo") //
+                .build();
+
+        assertThat(metadata.matches(resultset.get(0))).isTrue();
+        assertThat(metadata.matches(otherResult.get(0))).isFalse();
+    }
+
+    @Test
+    void shouldNotMatchColumnsOfDifferentType() {
+
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(resultset.get(0));
+
+        List<MockRowColumn> otherResult = ResultBuilder.builder() //
+                .withColumn("id", AdbaType.BIGINT) //
+                .withColumn("name", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow(1L, "foo") //
+                .build();
+
+        assertThat(metadata.matches(otherResult.get(0))).isFalse();
+    }
+
+    @Test
+    void shouldLookupColumnMetadata() {
+
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(resultset.get(0));
+
+        assertThat(metadata.getColumnMetadata(2).getName()).isEqualTo("name");
+        assertThat(metadata.getColumnMetadata("id").getIndex()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldResolveColumnIndexIgnoringCase() {
+
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(resultset.get(0));
+
+        assertThat(metadata.getColumnIndex("name")).isEqualTo(2);
+        assertThat(metadata.getColumnIndex("NAME")).isEqualTo(2);
+        assertThat(metadata.getColumnMetadata("Id").getIndex()).isEqualTo(1);
+        assertThat(metadata.getColumnIndex("unknown")).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldConsiderColumnsWithoutIdentifier() {
+
+        List<MockRowColumn> unnamed = ResultBuilder.builder() //
+                .withColumn(null, AdbaType.INTEGER) //
+                .withColumn("name", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow(1, "foo") //
+                .build();
+
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(unnamed.get(0));
+
+        assertThat(metadata.getColumnMetadata(1).getName()).isNull();
+        assertThat(metadata.getColumnIndex("name")).isEqualTo(2);
+        assertThat(metadata.matches(unnamed.get(0))).isTrue();
+    }
+
+    @Test
+    void quotedIdentifiersShouldMatchExactly() {
+
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(resultset.get(0));
+
+        assertThat(metadata.getColumnIndex("\"name\"")).isEqualTo(2);
+        assertThat(metadata.getColumnIndex("\"NAME\"")).isEqualTo(-1);
+    }
+}
@@ -26,7 +26,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -109,4 +111,23 @@ class AdbaUtilsUnitTests {
         assertThat(result.getSqlString()).isEqualTo("sql");
         assertThat(result.getPosition()).isEqualTo(2);
     }
+
+    @Test
+    void shouldMapTimeoutSqlExceptions() {
+
+        SqlException cause = new SqlException("timed out", null, "HYT00", 0, "sql", -1);
+
+        AdbaException result = AdbaUtils.exceptionMapper().apply(new CompletionException(cause));
+
+        assertThat(result).isInstanceOf(AdbaTimeoutException.class).hasCause(cause);
+        assertThat(result.getSqlState()).isEqualTo("HYT00");
+    }
+
+    @Test
+    void shouldMapTimeoutExceptions() {
+
+        TimeoutException cause = new TimeoutException();
+
+        assertThat(AdbaUtils.exceptionMapper().apply(cause)).isInstanceOf(AdbaTimeoutException.class).hasCause(cause);
+    }
 }
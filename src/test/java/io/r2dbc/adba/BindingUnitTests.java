@@ -21,15 +21,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
 
 import java.time.*;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 /**
  * Unit tests for {@link Binding}.
@@ -39,14 +44,14 @@ import static org.mockito.Mockito.verify;
 @ExtendWith(MockitoExtension.class)
 class BindingUnitTests {
 
-    @Mock(answer = Answers.RETURNS_MOCKS)
+    @Mock(answer = Answers.RETURNS_SELF)
     ParameterizedOperation<String> operation;
 
     @Test
     void shouldBindByName() {
 
         Binding binding = new Binding();
-        binding.add("foo", Optional.of("bar"));
+        binding.add("foo", "bar");
 
         binding.bind(operation);
 
@@ -57,13 +62,84 @@ class BindingUnitTests {
     void shouldBindByIndex() {
 
         Binding binding = new Binding();
-        binding.add(2, Optional.of("bar"));
+        binding.add(2, "bar");
 
         binding.bind(operation);
 
         verify(operation).set("2", "bar", AdbaType.VARCHAR);
     }
 
+    @Test
+    void shouldBindPrimitivesByIndex() {
+
+        Binding binding = new Binding();
+        binding.add(0, 42);
+        binding.add(1, 42L);
+        binding.add(2, 1.5D);
+        binding.add(3, true);
+        binding.addNull(5);
+
+        binding.bind(operation);
+
+        verify(operation).set("0", 42, AdbaType.INTEGER);
+        verify(operation).set("1", 42L, AdbaType.BIGINT);
+        verify(operation).set("2", 1.5D, AdbaType.DOUBLE);
+        verify(operation).set("3", true, AdbaType.BOOLEAN);
+        verify(operation).set("5", (Object) null, AdbaType.NULL);
+        verifyNoMoreInteractions(operation);
+    }
+
+    @Test
+    void shouldApplyCustomTypeMappingsToPrimitives() {
+
+        SqlTypeResolver resolver = AdbaOptions.create() //
+                .withTypeMapping(Integer.class, AdbaType.NUMERIC) //
+                .withTypeMapping(Boolean.class, AdbaType.BIT) //
+                .getTypeResolver();
+
+        Binding binding = new Binding();
+        binding.add(0, 42);
+        binding.add(1, true);
+        binding.add(2, 42L);
+
+        binding.bind(operation, resolver);
+
+        verify(operation).set("0", 42, AdbaType.NUMERIC);
+        verify(operation).set("1", true, AdbaType.BIT);
+        verify(operation).set("2", 42L, AdbaType.BIGINT);
+        verifyNoMoreInteractions(operation);
+    }
+
+    @Test
+    void shouldBindFuturesAsFutureParameters() {
+
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        Binding binding = new Binding();
+        binding.add(0, future);
+        binding.add("name", Mono.just("bar"));
+
+        binding.bind(operation);
+
+        verify(operation).set("0", future);
+        verify(operation).set(eq("name"), any(CompletionStage.class));
+        verifyNoMoreInteractions(operation);
+    }
+
+    @Test
+    void shouldGrowSlots() {
+
+        Binding binding = new Binding(1);
+        binding.add(0, "foo");
+        binding.add(300, "bar");
+
+        binding.bind(operation);
+
+        verify(operation).set("0", "foo", AdbaType.VARCHAR);
+        verify(operation).set("300", "bar", AdbaType.VARCHAR);
+        assertThat(binding.getParameterCount()).isEqualTo(301);
+    }
+
     @Test
     void shouldCorrectlyMapTypes() {
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.ArrayRowCountOperation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for {@link Bindings}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class BindingsUnitTests {
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    ArrayRowCountOperation<Object> operation;
+
+    @Test
+    void shouldBindColumnWise() {
+
+        Bindings bindings = new Bindings();
+        bindings.getCurrent().add(0, "foo");
+        bindings.getCurrent().add("name", 1);
+        bindings.finish();
+        bindings.getCurrent().addNull(0);
+        bindings.getCurrent().add("name", 2);
+        bindings.finish();
+
+        bindings.bind(operation);
+
+        verify(operation).set("0", Arrays.asList("foo", null), AdbaType.VARCHAR);
+        verify(operation).set("name", Arrays.asList(1, 2), AdbaType.INTEGER);
+    }
+
+    @Test
+    void shouldRejectIncompleteBindingSets() {
+
+        Bindings bindings = new Bindings();
+        bindings.getCurrent().add(0, "foo");
+        bindings.finish();
+        bindings.getCurrent().add(1, "bar");
+
+        assertThatThrownBy(() -> bindings.bind(operation)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.adba.mock.MockRowColumn;
+import io.r2dbc.adba.mock.ResultBuilder;
+import jdk.incubator.sql2.AdbaType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link Codecs} and decoding through {@link AdbaRow}.
+ *
+ * @author Mark Paluch
+ */
+class CodecsUnitTests {
+
+    enum Color {
+        RED, GREEN
+    }
+
+    @Test
+    void shouldDecodeBuiltinTypes() {
+
+        UUID uuid = UUID.randomUUID();
+        OffsetDateTime timestamp = OffsetDateTime.of(2019, 1, 2, 3, 4, 5, 0, ZoneOffset.ofHours(1));
+
+        List<MockRowColumn> rows = ResultBuilder.builder() //
+                .withColumn("color", AdbaType.VARCHAR) //
+                .withColumn("id", AdbaType.CHAR) //
+                .withColumn("created", AdbaType.TIMESTAMP_WITH_TIME_ZONE) //
+                .andResult() //
+                .withRow("GREEN", uuid.toString(), timestamp) //
+                .build();
+
+        AdbaRow row = AdbaRow.create(rows.get(0), AdbaRowMetadata.create(rows.get(0)));
+
+        assertThat(row.get("color", Color.class)).isEqualTo(Color.GREEN);
+        assertThat(row.get("id", UUID.class)).isEqualTo(uuid);
+        assertThat(row.get("created", Instant.class)).isEqualTo(timestamp.toInstant());
+        assertThat(row.get("created", OffsetDateTime.class)).isEqualTo(timestamp);
+        assertThat(row.get("color", Object.class)).isEqualTo("GREEN");
+    }
+
+    @Test
+    void registeredCodecsShouldTakePrecedence() {
+
+        ColumnDecoder<String> decoder = column -> "custom";
+        Codecs codecs = AdbaOptions.create() //
+                .withCodec((columnType, type) -> type == String.class && columnType == AdbaType.VARCHAR ? decoder : null) //
+                .getCodecs();
+
+        assertThat(codecs.getDecoder(AdbaType.VARCHAR, String.class)).isSameAs(decoder);
+        assertThat(codecs.getDecoder(AdbaType.CHAR, String.class)).isNotSameAs(decoder);
+        assertThat(Codecs.create().getDecoder(AdbaType.VARCHAR, String.class)).isNotSameAs(decoder);
+    }
+
+    @Test
+    void shouldSelectDecoderOncePerColumnAndType() {
+
+        int[] selections = new int[1];
+        Codecs codecs = Codecs.create().withCodec((columnType, type) -> {
+            selections[0]++;
+            return null;
+        });
+
+        ResultBuilder.ColumnDefBuilder columns = ResultBuilder.builder();
+        Object[] values = new Object[20];
+
+        for (int i = 0; i < values.length; i++) {
+            columns.withColumn("col" + i, AdbaType.BIGINT);
+            values[i] = (long) i;
+        }
+
+        List<MockRowColumn> rows = columns.andResult().withRow(values).withRow(values).build();
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(rows.get(0), codecs);
+
+        for (MockRowColumn rowColumn : rows) {
+
+            AdbaRow row = AdbaRow.create(rowColumn, metadata);
+
+            for (int i = 0; i < values.length; i++) {
+                assertThat(row.get("col" + i, Long.class)).isEqualTo(values[i]);
+            }
+        }
+
+        assertThat(selections[0]).isEqualTo(20);
+    }
+
+    @Test
+    void shouldCacheDecodersPerRequestedTypeAndColumnType() {
+
+        int[] selections = new int[1];
+        Codecs codecs = Codecs.create().withCodec((columnType, type) -> {
+            selections[0]++;
+            return null;
+        });
+
+        List<MockRowColumn> rows = ResultBuilder.builder() //
+                .withColumn("value", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow("1").withRow("2").withRow("3") //
+                .build();
+        List<MockRowColumn> otherRows = ResultBuilder.builder() //
+                .withColumn("value", AdbaType.CHAR) //
+                .andResult() //
+                .withRow("4") //
+                .build();
+
+        AdbaRowMetadata metadata = AdbaRowMetadata.create(rows.get(0), codecs);
+
+        for (MockRowColumn rowColumn : rows) {
+
+            AdbaRow row = AdbaRow.create(rowColumn, metadata);
+
+            assertThat(row.get("value", String.class)).isEqualTo(rowColumn.at(1).get(String.class));
+            assertThat(row.get("value", Object.class)).isEqualTo(rowColumn.at(1).get(String.class));
+        }
+
+        assertThat(selections[0]).isEqualTo(2);
+
+        assertThat(AdbaRow.create(otherRows.get(0), metadata).get("value", String.class)).isEqualTo("4");
+        assertThat(selections[0]).isEqualTo(3);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.Operation;
+import jdk.incubator.sql2.SqlBlob;
+import jdk.incubator.sql2.SqlClob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link LobStreams}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings({"unchecked", "rawtypes"})
+class LobStreamsUnitTests {
+
+    @Mock
+    SqlBlob blob;
+    @Mock
+    SqlClob clob;
+    @Mock
+    Operation closeOperation;
+
+    @Test
+    void shouldStreamBlobInChunksOnDemand() {
+
+        ByteArrayChannel channel = new ByteArrayChannel("hello world".getBytes(StandardCharsets.US_ASCII));
+        when(blob.getReadChannel()).thenReturn(channel);
+        when(blob.closeOperation()).thenReturn(closeOperation);
+
+        LobStreams.read(blob, 4) //
+                .map(buffer -> StandardCharsets.US_ASCII.decode(buffer).toString()) //
+                .as(it -> StepVerifier.create(it, 1)) //
+                .expectNext("hell") //
+                .then(() -> assertThat(channel.reads).hasValue(1)) //
+                .thenRequest(1) //
+                .expectNext("o wo") //
+                .thenRequest(Long.MAX_VALUE) //
+                .expectNext("rld") //
+                .verifyComplete();
+
+        verify(closeOperation).submit();
+    }
+
+    @Test
+    void shouldStreamClobInChunks() {
+
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> readerThread = new AtomicReference<>();
+
+        when(clob.getReader()).then(invocation -> {
+
+            readerThread.set(Thread.currentThread());
+            return new StringReader("hello world");
+        });
+        when(clob.closeOperation()).thenReturn(closeOperation);
+
+        LobStreams.read(clob, 6) //
+                .map(CharSequence::toString) //
+                .as(StepVerifier::create) //
+                .expectNext("hello ", "world") //
+                .verifyComplete();
+
+        verify(closeOperation, timeout(1000)).submit();
+        assertThat(readerThread.get()).isNotNull().isNotSameAs(caller);
+    }
+
+    @Test
+    void cancelShouldReleaseBlob() {
+
+        when(blob.getReadChannel()).thenReturn(new ByteArrayChannel(new byte[100]));
+        when(blob.closeOperation()).thenReturn(closeOperation);
+
+        LobStreams.read(blob, 10).as(it -> StepVerifier.create(it, 1)) //
+                .expectNextCount(1) //
+                .thenCancel() //
+                .verify();
+
+        verify(closeOperation).submit();
+    }
+
+    /**
+     * {@link AsynchronousByteChannel} completing reads synchronously from a byte array.
+     */
+    static class ByteArrayChannel implements AsynchronousByteChannel {
+
+        final ByteBuffer content;
+
+        final AtomicInteger reads = new AtomicInteger();
+
+        ByteArrayChannel(byte[] content) {
+            this.content = ByteBuffer.wrap(content);
+        }
+
+        @Override
+        public <A> void read(ByteBuffer dst, A attachment, CompletionHandler<Integer, ? super A> handler) {
+
+            reads.incrementAndGet();
+
+            if (!content.hasRemaining()) {
+                handler.completed(-1, attachment);
+                return;
+            }
+
+            int length = Math.min(dst.remaining(), content.remaining());
+            ByteBuffer slice = content.slice();
+            slice.limit(length);
+            dst.put(slice);
+            content.position(content.position() + length);
+
+            handler.completed(length, attachment);
+        }
+
+        @Override
+        public Future<Integer> read(ByteBuffer dst) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <A> void write(ByteBuffer src, A attachment, CompletionHandler<Integer, ? super A> handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<Integer> write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
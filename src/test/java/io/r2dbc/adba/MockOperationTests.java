@@ -17,15 +17,21 @@ package io.r2dbc.adba;
 
 import io.r2dbc.adba.mock.*;
 import io.r2dbc.spi.Result;
+import io.r2dbc.spi.RowMetadata;
 import jdk.incubator.sql2.AdbaType;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Tests for operation execution using {@link MockSession} and operation mocks.
@@ -62,6 +68,218 @@ class MockOperationTests {
                 }).verifyComplete();
     }
 
+    @Test
+    void shouldResolveColumnNamesIgnoringCase() {
+
+        MockDataSource dataSource = MockDataSource.newSingletonMock();
+        MockSession session = dataSource.getSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("id", AdbaType.INTEGER) //
+                .withColumn("col", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow(1, "foo").withRow(2, "bar") //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        Mono<List<String>> result = Mono.from(AdbaAdapter.fromDataSource(dataSource).create()) //
+                .flatMapMany(it -> it.createStatement("SELECT * FROM foo").execute())  //
+                .flatMap(it -> it.map((r, md) -> r.get("COL", String.class))) //
+                .collectList();
+
+        result //
+                .as(StepVerifier::create) //
+                .consumeNextWith(actual -> {
+                    assertThat(actual).containsExactly("foo", "bar");
+                }).verifyComplete();
+    }
+
+    @Test
+    void shouldShareRowMetadataAcrossRows() {
+
+        MockDataSource dataSource = MockDataSource.newSingletonMock();
+        MockSession session = dataSource.getSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("col", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow("foo").withRow("bar") //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        Mono<List<RowMetadata>> result = Mono.from(AdbaAdapter.fromDataSource(dataSource).create()) //
+                .flatMapMany(it -> it.createStatement("SELECT * FROM foo").execute())  //
+                .flatMap(it -> it.map((r, md) -> md)) //
+                .collectList();
+
+        result //
+                .as(StepVerifier::create) //
+                .consumeNextWith(actual -> {
+                    assertThat(actual).hasSize(2);
+                    assertThat(actual.get(0)).isSameAs(actual.get(1));
+                }).verifyComplete();
+    }
+
+    @Test
+    void shouldReuseRowMetadataAcrossExecutions() {
+
+        MockDataSource dataSource = MockDataSource.newSingletonMock();
+        MockSession session = dataSource.getSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("col", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow("foo") //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        Mono<List<RowMetadata>> result = Mono.from(AdbaAdapter.fromDataSource(dataSource).create()) //
+                .flatMapMany(it -> it.createStatement("SELECT * FROM foo").execute()
+                        .concatWith(it.createStatement("SELECT * FROM foo").execute()))  //
+                .concatMap(it -> it.map((r, md) -> md)) //
+                .collectList();
+
+        result //
+                .as(StepVerifier::create) //
+                .consumeNextWith(actual -> {
+                    assertThat(actual).hasSize(2);
+                    assertThat(actual.get(0)).isSameAs(actual.get(1));
+                }).verifyComplete();
+    }
+
+    @Test
+    void shouldSkipRowsMappedToNull() {
+
+        MockDataSource dataSource = MockDataSource.newSingletonMock();
+        MockSession session = dataSource.getSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("col", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow("foo").withRow("bar").withRow("baz") //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        Flux<String> result = Mono.from(AdbaAdapter.fromDataSource(dataSource).create()) //
+                .flatMapMany(it -> it.createStatement("SELECT * FROM foo").execute())  //
+                .flatMap(it -> it.map((r, md) -> {
+
+                    String value = r.get("col", String.class);
+                    return value.equals("bar") ? null : value;
+                }));
+
+        result //
+                .as(it -> StepVerifier.create(it, 1)) //
+                .expectNext("foo") //
+                .thenRequest(1) //
+                .expectNext("baz") //
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldApplyStatementFetchSize() {
+
+        MockSession session = new MockSession();
+        AtomicReference<MockParameterizedRowOperation<Object>> operation = new AtomicReference<>();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            operation.set(op);
+        });
+
+        AdbaStatement.create(session, "SELECT * FROM foo", AdbaOptions.create().withFetchSize(100)).fetchSize(10).execute() //
+                .flatMapMany(it -> it.map((r, md) -> r)) //
+                .as(StepVerifier::create) //
+                .verifyComplete();
+
+        assertThat(operation.get().getFetchSize()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldApplyDefaultFetchSize() {
+
+        MockSession session = new MockSession();
+        AtomicReference<MockParameterizedRowOperation<Object>> operation = new AtomicReference<>();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            operation.set(op);
+        });
+
+        AdbaStatement.create(session, "SELECT * FROM foo", AdbaOptions.create().withFetchSize(100)).execute() //
+                .flatMapMany(it -> it.map((r, md) -> r)) //
+                .as(StepVerifier::create) //
+                .verifyComplete();
+
+        assertThat(operation.get().getFetchSize()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldDeriveFetchSizeFromDemand() {
+
+        MockSession session = new MockSession();
+        AtomicReference<MockParameterizedRowOperation<Object>> operation = new AtomicReference<>();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            operation.set(op);
+        });
+
+        AdbaStatement.create(session, "SELECT * FROM foo", AdbaOptions.create().withFetchSizeFromDemand(true)).execute() //
+                .flatMapMany(it -> it.map((r, md) -> r)) //
+                .as(it -> StepVerifier.create(it, 5)) //
+                .verifyComplete();
+
+        assertThat(operation.get().getFetchSize()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldApplyStatementTimeout() {
+
+        MockSession session = new MockSession();
+        AtomicReference<MockParameterizedRowOperation<Object>> operation = new AtomicReference<>();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            operation.set(op);
+        });
+
+        AdbaStatement.create(session, "SELECT * FROM foo", AdbaOptions.create().withStatementTimeout(Duration.ofSeconds(10))).timeout(Duration.ofSeconds(1)).execute() //
+                .flatMapMany(it -> it.map((r, md) -> r)) //
+                .as(StepVerifier::create) //
+                .verifyComplete();
+
+        assertThat(operation.get().getTimeout()).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void shouldApplyDefaultStatementTimeout() {
+
+        MockSession session = new MockSession();
+        AtomicReference<MockParameterizedRowCountOperation<Object>> operation = new AtomicReference<>();
+
+        session.registerOnCreate(MockParameterizedRowCountOperation.class, (String sql, MockParameterizedRowCountOperation<Object> op) -> {
+            op.setRowCount(1);
+            operation.set(op);
+        });
+
+        AdbaStatement.create(session, "UPDATE foo", AdbaOptions.create().withStatementTimeout(Duration.ofSeconds(10))).execute() //
+                .flatMapMany(AdbaStatement.AdbaResult::getRowsUpdated) //
+                .as(StepVerifier::create) //
+                .expectNextCount(1) //
+                .verifyComplete();
+
+        assertThat(operation.get().getTimeout()).isEqualTo(Duration.ofSeconds(10));
+    }
+
     @Test
     void shouldExecuteCountOperation() {
 
@@ -83,16 +301,178 @@ class MockOperationTests {
     }
 
     @Test
-    void shouldNotSupportGeneratedKeys() {
+    void shouldReturnGeneratedValues() {
 
-        MockDataSource dataSource = MockDataSource.newSingletonMock();
+        MockSession session = new MockSession();
+        AtomicReference<String> executedSql = new AtomicReference<>();
 
-        Flux<? extends Result> result = Mono.from(AdbaAdapter.fromDataSource(dataSource).create()) //
-                .flatMapMany(it -> it.createStatement("SELECT * FROM foo").returnGeneratedValues().execute());
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("id", AdbaType.INTEGER) //
+                .andResult() //
+                .withRow(42) //
+                .build();
 
-        result //
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            executedSql.set(sql);
+            op.completeWith(resultset);
+        });
+
+        AdbaStatement.create(session, "INSERT INTO foo VALUES(:name);").bind("name", "bar").returnGeneratedValues("id").execute() //
+                .flatMapMany(it -> it.map((r, md) -> r.get("id", Integer.class))) //
                 .as(StepVerifier::create) //
-                .expectError(UnsupportedOperationException.class) //
-                .verify();
+                .expectNext(42) //
+                .verifyComplete();
+
+        assertThat(executedSql).hasValue("INSERT INTO foo VALUES(:name) RETURNING id");
+    }
+
+    @Test
+    void shouldCountRowsOfGeneratedValuesPerBinding() {
+
+        MockSession session = new MockSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("id", AdbaType.INTEGER) //
+                .andResult() //
+                .withRow(1) //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        AdbaStatement.create(session, "INSERT INTO foo VALUES(:name)") //
+                .bind("name", "bar").add() //
+                .bind("name", "baz").returnGeneratedValues().execute() //
+                .flatMapMany(AdbaStatement.AdbaResult::getRowsUpdated) //
+                .as(StepVerifier::create) //
+                .expectNext(1, 1) //
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectStatementsThatCannotReturnGeneratedValues() {
+
+        AdbaStatement statement = AdbaStatement.create(new MockSession(), "WITH x AS (SELECT 1) INSERT INTO foo SELECT * FROM x");
+
+        assertThatThrownBy(() -> statement.returnGeneratedValues()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectStreamedParameterWithoutLobFactory() {
+
+        AdbaStatement statement = AdbaStatement.create(new MockSession(), "INSERT INTO foo VALUES(:data)");
+
+        assertThatThrownBy(() -> statement.bind("data", Flux.just("foo"))).isInstanceOf(IllegalStateException.class).hasMessageContaining("LobFactory");
+    }
+
+    @Test
+    void shouldEmitColumnarRowBatches() {
+
+        MockSession session = new MockSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("id", AdbaType.BIGINT) //
+                .withColumn("amount", AdbaType.DOUBLE) //
+                .withColumn("name", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow(1L, 1.5D, "foo") //
+                .withRow(2L, null, "bar") //
+                .withRow(3L, 3.5D, null) //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        AdbaStatement.create(session, "SELECT * FROM foo").execute() //
+                .flatMapMany(it -> it.batches(2)) //
+                .as(StepVerifier::create) //
+                .consumeNextWith(batch -> {
+
+                    assertThat(batch.size()).isEqualTo(2);
+                    assertThat(batch.getLongs(1)).containsExactly(1L, 2L);
+                    assertThat(batch.getDoubles(2)[0]).isEqualTo(1.5D);
+                    assertThat(batch.isNull(2, 1)).isTrue();
+                    assertThat(batch.getObjects(3)).containsExactly("foo", "bar");
+                }) //
+                .consumeNextWith(batch -> {
+
+                    assertThat(batch.size()).isEqualTo(1);
+                    assertThat(batch.getLongs(1)[0]).isEqualTo(3L);
+                    assertThat(batch.get(3, 0)).isNull();
+                }) //
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCollectRowsThroughRowOperation() {
+
+        MockSession session = new MockSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("name", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow("foo").withRow("bar") //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        AdbaStatement.create(session, "SELECT name FROM foo").execute() //
+                .flatMap(it -> it.collect((row, metadata) -> row.get("name", String.class), Collectors.joining(","))) //
+                .as(StepVerifier::create) //
+                .expectNext("foo,bar") //
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCollectRowsOfAllBindings() {
+
+        MockSession session = new MockSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("name", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow("foo") //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        AdbaStatement.create(session, "SELECT name FROM foo WHERE id = :id").bind("id", 1).add().bind("id", 2).execute() //
+                .flatMap(it -> it.collect((row, metadata) -> row.get("name", String.class), Collectors.toList())) //
+                .as(StepVerifier::create) //
+                .expectNext(Arrays.asList("foo", "foo")) //
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCollectMappedTypes() {
+
+        MockSession session = new MockSession();
+
+        List<MockRowColumn> resultset = ResultBuilder.builder() //
+                .withColumn("name", AdbaType.VARCHAR) //
+                .andResult() //
+                .withRow("foo").withRow("bar") //
+                .build();
+
+        session.registerOnCreate(MockParameterizedRowOperation.class, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(resultset);
+        });
+
+        AdbaStatement.create(session, "SELECT name FROM foo").execute() //
+                .flatMap(it -> it.collect(Person.class, Collectors.toList())) //
+                .as(StepVerifier::create) //
+                .consumeNextWith(actual -> assertThat(actual).extracting(it -> it.name).containsExactly("foo", "bar")) //
+                .verifyComplete();
+    }
+
+    static class Person {
+
+        String name;
     }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.Operation;
+import jdk.incubator.sql2.Submission;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OperationPipeline}.
+ *
+ * @author Mark Paluch
+ */
+@ExtendWith(MockitoExtension.class)
+class OperationPipelineUnitTests {
+
+    @Mock
+    Operation<Object> operation;
+    @Mock
+    Submission<Object> submission;
+
+    @Test
+    void shouldSubmitWithoutLimit() {
+
+        OperationPipeline pipeline = OperationPipeline.create(0);
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        CompletableFuture<Object> second = new CompletableFuture<>();
+
+        pipeline.enqueue(() -> first, e -> {});
+        pipeline.enqueue(() -> second, e -> {});
+
+        assertThat(pipeline.getInFlight()).isEqualTo(2);
+
+        first.complete(null);
+        second.complete(null);
+
+        assertThat(pipeline.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldQueueBeyondMaxDepthInOrder() {
+
+        OperationPipeline pipeline = OperationPipeline.create(1);
+        List<String> submitted = new ArrayList<>();
+        CompletableFuture<Object> first = new CompletableFuture<>();
+
+        pipeline.enqueue(() -> {
+            submitted.add("first");
+            return first;
+        }, e -> {});
+        pipeline.enqueue(() -> {
+            submitted.add("second");
+            return CompletableFuture.completedFuture(null);
+        }, e -> {});
+        pipeline.enqueue(() -> {
+            submitted.add("third");
+            return CompletableFuture.completedFuture(null);
+        }, e -> {});
+
+        assertThat(submitted).containsExactly("first");
+        assertThat(pipeline.getQueued()).isEqualTo(2);
+
+        first.complete(null);
+
+        assertThat(submitted).containsExactly("first", "second", "third");
+        assertThat(pipeline.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldEmitOperationResult() {
+
+        when(operation.submit()).thenReturn(submission);
+        when(submission.getCompletionStage()).thenReturn(CompletableFuture.completedFuture("foo"));
+
+        OperationPipeline.create(1).submitLater(() -> operation).as(StepVerifier::create).expectNext("foo").verifyComplete();
+    }
+
+    @Test
+    void cancelShouldRemoveQueuedOperation() {
+
+        OperationPipeline pipeline = OperationPipeline.create(1);
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        pipeline.enqueue(() -> first, e -> {});
+
+        Disposable disposable = pipeline.submitLater(() -> operation).subscribe();
+        disposable.dispose();
+
+        first.complete(null);
+
+        verifyZeroInteractions(operation);
+        assertThat(pipeline.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldSubmitDeferredTasksAlongWithNextTask() {
+
+        OperationPipeline pipeline = OperationPipeline.create(1);
+        List<String> submitted = new ArrayList<>();
+        Supplier<CompletableFuture<Object>> elided = () -> {
+            submitted.add("elided");
+            return new CompletableFuture<>();
+        };
+
+        pipeline.defer(() -> {
+            submitted.add("deferred");
+            return new CompletableFuture<>();
+        });
+        pipeline.defer(elided);
+
+        assertThat(pipeline.undefer(elided)).isTrue();
+        assertThat(submitted).isEmpty();
+        assertThat(pipeline.getDeferred()).isEqualTo(1);
+
+        pipeline.enqueue(() -> {
+            submitted.add("task");
+            return CompletableFuture.completedFuture(null);
+        }, e -> {});
+
+        assertThat(submitted).containsExactly("deferred", "task");
+        assertThat(pipeline.getDeferred()).isZero();
+        assertThat(pipeline.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldReportDeferredFailuresToNextTask() {
+
+        OperationPipeline pipeline = OperationPipeline.create(0);
+        List<Throwable> errors = new ArrayList<>();
+        CompletableFuture<Object> deferred = new CompletableFuture<>();
+
+        pipeline.defer(() -> deferred);
+        pipeline.enqueue(() -> CompletableFuture.completedFuture(null), errors::add);
+
+        assertThat(errors).isEmpty();
+
+        deferred.completeExceptionally(new IllegalStateException());
+
+        assertThat(errors).hasSize(1).first().isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldSkipNextTaskIfDeferredTaskFailsToSubmit() {
+
+        OperationPipeline pipeline = OperationPipeline.create(1);
+        List<Throwable> errors = new ArrayList<>();
+        List<String> submitted = new ArrayList<>();
+
+        pipeline.defer(() -> {
+            throw new IllegalStateException();
+        });
+        pipeline.enqueue(() -> {
+            submitted.add("task");
+            return CompletableFuture.completedFuture(null);
+        }, errors::add);
+
+        assertThat(submitted).isEmpty();
+        assertThat(errors).hasSize(1);
+        assertThat(pipeline.getInFlight()).isZero();
+    }
+
+    @Test
+    void shouldDiscardDeferredTasks() {
+
+        OperationPipeline pipeline = OperationPipeline.create(0);
+        List<String> submitted = new ArrayList<>();
+
+        pipeline.defer(() -> {
+            submitted.add("deferred");
+            return new CompletableFuture<>();
+        });
+
+        assertThat(pipeline.discardDeferred()).isEqualTo(1);
+
+        pipeline.enqueue(() -> CompletableFuture.completedFuture(null), e -> {});
+
+        assertThat(submitted).isEmpty();
+    }
+}
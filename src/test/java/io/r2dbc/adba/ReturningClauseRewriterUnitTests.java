@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link ReturningClauseRewriter}.
+ *
+ * @author Mark Paluch
+ */
+class ReturningClauseRewriterUnitTests {
+
+    GeneratedValuesRewriter rewriter = GeneratedValuesRewriter.returningClause();
+
+    @Test
+    void shouldAppendReturningClause() {
+
+        assertThat(rewriter.rewrite("INSERT INTO foo VALUES(1)", Collections.emptyList())).isEqualTo("INSERT INTO foo VALUES(1) RETURNING *");
+        assertThat(rewriter.rewrite("  update foo SET a = 1;  ", Arrays.asList("id", "version"))).isEqualTo("  update foo SET a = 1 RETURNING id, version");
+    }
+
+    @Test
+    void shouldDeclineNonModifyingStatements() {
+
+        assertThat(rewriter.rewrite("SELECT * FROM foo", Collections.emptyList())).isNull();
+        assertThat(rewriter.rewrite("WITH x AS (SELECT 1) INSERT INTO foo SELECT * FROM x", Collections.emptyList())).isNull();
+    }
+
+    @Test
+    void shouldRetainExistingReturningClause() {
+        assertThat(rewriter.rewrite("DELETE FROM foo returning id", Collections.singletonList("id"))).isEqualTo("DELETE FROM foo returning id");
+    }
+
+    @Test
+    void shouldIgnoreCommentsAndLiterals() {
+
+        assertThat(rewriter.rewrite("/* audit */ -- note\nINSERT INTO foo VALUES('returning') -- trailing", Collections.emptyList())) //
+                .isEqualTo("/* audit */ -- note\nINSERT INTO foo VALUES('returning') RETURNING *");
+        assertThat(rewriter.rewrite("UPDATE \"Returning\" SET a = 'it''s'", Collections.singletonList("id"))) //
+                .isEqualTo("UPDATE \"Returning\" SET a = 'it''s' RETURNING id");
+    }
+
+    @Test
+    void shouldRejectInvalidColumnNames() {
+
+        assertThatThrownBy(() -> rewriter.rewrite("INSERT INTO foo VALUES(1)", Collections.singletonList("id; DROP TABLE foo"))) //
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(rewriter.rewrite("INSERT INTO foo VALUES(1)", Collections.singletonList("\"Id\""))).isEqualTo("INSERT INTO foo VALUES(1) RETURNING \"Id\"");
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.adba.mock.MockRowColumn;
+import io.r2dbc.adba.mock.ResultBuilder;
+import jdk.incubator.sql2.AdbaType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link RowMappers}.
+ *
+ * @author Mark Paluch
+ */
+class RowMappersUnitTests {
+
+    List<MockRowColumn> resultset = ResultBuilder.builder() //
+            .withColumn("id", AdbaType.INTEGER) //
+            .withColumn("FIRST_NAME", AdbaType.VARCHAR) //
+            .withColumn("age", AdbaType.INTEGER) //
+            .andResult() //
+            .withRow(1, "Walter", 50) //
+            .withRow(2, "Jesse", null) //
+            .build();
+
+    AdbaRowMetadata metadata = AdbaRowMetadata.create(resultset.get(0));
+
+    @Test
+    void shouldMapThroughSettersAndFields() {
+
+        RowMapper<Person> mapper = RowMappers.create(metadata, Person.class);
+
+        Person walter = mapper.map(AdbaRow.create(resultset.get(0), metadata));
+        Person jesse = mapper.map(AdbaRow.create(resultset.get(1), metadata));
+
+        assertThat(walter.id).isEqualTo(1);
+        assertThat(walter.firstName).isEqualTo("Walter");
+        assertThat(walter.age).isEqualTo(50);
+        assertThat(walter.setterCalled).isTrue();
+        assertThat(jesse.firstName).isEqualTo("Jesse");
+        assertThat(jesse.age).isEqualTo(0);
+    }
+
+    @Test
+    void shouldLeaveUnmatchedPropertiesUnset() {
+
+        RowMapper<Unmatched> mapper = RowMappers.create(metadata, Unmatched.class);
+
+        Unmatched unmatched = mapper.map(AdbaRow.create(resultset.get(0), metadata));
+
+        assertThat(unmatched.id).isEqualTo(1);
+        assertThat(unmatched.nickname).isEqualTo("none");
+    }
+
+    @Test
+    void shouldCacheMapperPerMetadata() {
+
+        assertThat(metadata.getRowMapper(Person.class)).isSameAs(metadata.getRowMapper(Person.class));
+        assertThat(AdbaRowMetadata.create(resultset.get(0)).getRowMapper(Person.class)).isNotSameAs(metadata.getRowMapper(Person.class));
+    }
+
+    @Test
+    void mappingFunctionShouldMapRows() {
+
+        BiFunction<io.r2dbc.spi.Row, io.r2dbc.spi.RowMetadata, Person> function = RowMappers.forType(Person.class);
+
+        Person person = function.apply(AdbaRow.create(resultset.get(1), metadata), metadata);
+
+        assertThat(person.id).isEqualTo(2);
+        assertThat(person.firstName).isEqualTo("Jesse");
+    }
+
+    @Test
+    void shouldRejectTypesWithoutDefaultConstructor() {
+        assertThatThrownBy(() -> RowMappers.create(metadata, NoDefaultConstructor.class)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static class Person {
+
+        int id;
+
+        String firstName;
+
+        int age;
+
+        boolean setterCalled;
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+            this.setterCalled = true;
+        }
+    }
+
+    static class Unmatched {
+
+        Integer id;
+
+        String nickname = "none";
+    }
+
+    static class NoDefaultConstructor {
+
+        final int id;
+
+        NoDefaultConstructor(int id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.SqlType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link SqlTypeResolver}.
+ *
+ * @author Mark Paluch
+ */
+class SqlTypeResolverUnitTests {
+
+    @Test
+    void shouldResolveDefaultTypes() {
+
+        SqlTypeResolver resolver = SqlTypeResolver.create();
+
+        assertThat(resolver.getType(null)).isEqualTo(AdbaType.NULL);
+        assertThat(resolver.getType("foo")).isEqualTo(AdbaType.VARCHAR);
+        assertThat(resolver.getType(1)).isEqualTo(AdbaType.INTEGER);
+        assertThat(resolver.getType(new Object())).isEqualTo(AdbaType.OTHER);
+    }
+
+    @Test
+    void shouldResolveSubtypes() {
+
+        SqlTypeResolver resolver = SqlTypeResolver.create(Collections.<Class<?>, SqlType>singletonMap(List.class, AdbaType.ARRAY));
+
+        assertThat(resolver.getType(new ArrayList<>())).isEqualTo(AdbaType.ARRAY);
+        assertThat(resolver.getType(Collections.emptyList())).isEqualTo(AdbaType.ARRAY);
+    }
+
+    @Test
+    void customMappingsShouldTakePrecedence() {
+
+        SqlTypeResolver resolver = AdbaOptions.create() //
+                .withTypeMapping(String.class, AdbaType.NVARCHAR) //
+                .withTypeMapping(UUID.class, AdbaType.CHAR) //
+                .getTypeResolver();
+
+        assertThat(resolver.getType("foo")).isEqualTo(AdbaType.NVARCHAR);
+        assertThat(resolver.getType(UUID.randomUUID())).isEqualTo(AdbaType.CHAR);
+        assertThat(SqlTypeResolver.create().getType("foo")).isEqualTo(AdbaType.VARCHAR);
+    }
+
+    @Test
+    void customSupertypeMappingsShouldTakePrecedenceOverDefaults() {
+
+        SqlTypeResolver resolver = SqlTypeResolver.create(Collections.<Class<?>, SqlType>singletonMap(Number.class, AdbaType.NUMERIC));
+
+        assertThat(resolver.getType(1)).isEqualTo(AdbaType.NUMERIC);
+        assertThat(resolver.getTypeFor(Long.class)).isEqualTo(AdbaType.NUMERIC);
+        assertThat(resolver.getType("foo")).isEqualTo(AdbaType.VARCHAR);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link StatementCache}.
+ *
+ * @author Mark Paluch
+ */
+class StatementCacheUnitTests {
+
+    @Test
+    void shouldCountHitsAndMisses() {
+
+        StatementCache cache = StatementCache.create(2);
+
+        StatementTemplate template = cache.get("SELECT 1");
+
+        assertThat(cache.get("SELECT 1")).isSameAs(template);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedTemplate() {
+
+        StatementCache cache = StatementCache.create(2);
+
+        StatementTemplate first = cache.get("SELECT 1");
+        StatementTemplate second = cache.get("SELECT 2");
+        cache.get("SELECT 1");
+        cache.get("SELECT 3");
+
+        assertThat(cache.getSize()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.get("SELECT 1")).isSameAs(first);
+        assertThat(cache.get("SELECT 2")).isNotSameAs(second);
+    }
+
+    @Test
+    void shouldNotCacheWhenDisabled() {
+
+        StatementCache cache = StatementCache.create(0);
+
+        assertThat(cache.get("SELECT 1")).isNotSameAs(cache.get("SELECT 1"));
+        assertThat(cache.getSize()).isZero();
+        assertThat(cache.getMisses()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2018-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.r2dbc.adba;
+
+import io.r2dbc.adba.mock.MockParameterizedRowOperation;
+import io.r2dbc.adba.mock.MockSession;
+import io.r2dbc.adba.mock.ResultBuilder;
+import jdk.incubator.sql2.AdbaType;
+import jdk.incubator.sql2.SqlBlob;
+import jdk.incubator.sql2.SqlClob;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link StreamParameter}.
+ *
+ * @author Mark Paluch
+ */
+class StreamParameterUnitTests {
+
+    MockSession session = new MockSession();
+
+    OperationPipeline pipeline = OperationPipeline.create(0);
+
+    LobFactory lobFactory = LobFactory.query("SELECT blob", "SELECT clob");
+
+    @Test
+    void shouldWriteByteBuffersIntoDriverBlobOnDemand() {
+
+        CollectingChannel channel = new CollectingChannel(false);
+        SqlBlob blob = mockBlob(channel);
+        TestPublisher<ByteBuffer> publisher = TestPublisher.create();
+        StreamParameter parameter = StreamParameter.create(publisher);
+
+        StepVerifier.FirstStep<Void> verifier = parameter.write(session, pipeline, lobFactory).as(StepVerifier::create);
+
+        verifier.then(() -> {
+
+            publisher.assertMinRequested(1);
+            publisher.next(ByteBuffer.wrap("hello ".getBytes(StandardCharsets.US_ASCII)));
+            publisher.next(ByteBuffer.wrap("world".getBytes(StandardCharsets.US_ASCII)));
+
+            // a single element is prefetched while the previous one is written
+            assertThat(channel.getContent()).isEqualTo("hello ");
+            publisher.assertMaxRequested(0);
+
+            channel.completePending();
+            assertThat(channel.getContent()).isEqualTo("hello world");
+
+            channel.completePending();
+            publisher.complete();
+        }).verifyComplete();
+
+        assertThat(parameter.getSqlType()).isEqualTo(AdbaType.BLOB);
+        assertThat(parameter.getValue()).isSameAs(blob);
+        assertThat(channel.getContent()).isEqualTo("hello world");
+        assertThat(channel.isOpen()).isFalse();
+    }
+
+    @Test
+    void shouldContinuePartialBlobWrites() {
+
+        CollectingChannel channel = new CollectingChannel(true);
+        mockBlob(channel);
+
+        StreamParameter parameter = StreamParameter.create(Flux.just(ByteBuffer.wrap("hello world".getBytes(StandardCharsets.US_ASCII))));
+
+        parameter.write(session, pipeline, lobFactory).as(StepVerifier::create).verifyComplete();
+
+        assertThat(channel.getContent()).isEqualTo("hello world");
+    }
+
+    @Test
+    void shouldWriteCharSequencesIntoDriverClob() {
+
+        StringWriter writer = new StringWriter();
+        SqlClob clob = mock(SqlClob.class);
+        when(clob.getWriter()).thenReturn(writer);
+        registerLob("SELECT clob", clob, AdbaType.CLOB);
+
+        StreamParameter parameter = StreamParameter.create(Flux.just("hello ", "world"));
+
+        parameter.write(session, pipeline, lobFactory).as(StepVerifier::create).verifyComplete();
+
+        assertThat(parameter.getSqlType()).isEqualTo(AdbaType.CLOB);
+        assertThat(parameter.getValue()).isSameAs(clob);
+        assertThat(writer.toString()).isEqualTo("hello world");
+    }
+
+    @Test
+    void shouldCreateDeclaredLobForEmptyPublisher() {
+
+        CollectingChannel channel = new CollectingChannel(false);
+        SqlBlob blob = mockBlob(channel);
+
+        StreamParameter parameter = StreamParameter.create(LobStream.blob(Flux.empty()));
+
+        parameter.write(session, pipeline, lobFactory).as(StepVerifier::create).verifyComplete();
+
+        assertThat(parameter.getSqlType()).isEqualTo(AdbaType.BLOB);
+        assertThat(parameter.getValue()).isSameAs(blob);
+        assertThat(channel.isOpen()).isFalse();
+    }
+
+    @Test
+    void shouldRejectEmptyUndeclaredPublisher() {
+
+        StreamParameter.create(Flux.empty()).write(session, pipeline, lobFactory) //
+                .as(StepVerifier::create) //
+                .verifyError(AdbaException.class);
+    }
+
+    @Test
+    void shouldRejectUnsupportedElements() {
+
+        StreamParameter.create(Flux.just(42)).write(session, pipeline, lobFactory) //
+                .as(StepVerifier::create) //
+                .verifyError(AdbaException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRejectElementsNotMatchingDeclaredType() {
+
+        Flux<CharSequence> content = (Flux) Flux.just(ByteBuffer.allocate(1));
+
+        StreamParameter.create(LobStream.clob(content)).write(session, pipeline, lobFactory) //
+                .as(StepVerifier::create) //
+                .verifyError(AdbaException.class);
+    }
+
+    private SqlBlob mockBlob(AsynchronousByteChannel channel) {
+
+        SqlBlob blob = mock(SqlBlob.class);
+        when(blob.getWriteChannel()).thenReturn(channel);
+        registerLob("SELECT blob", blob, AdbaType.BLOB);
+
+        return blob;
+    }
+
+    private void registerLob(String query, Object lob, AdbaType type) {
+
+        session.registerOnCreate(query::equals, (String sql, MockParameterizedRowOperation<Object> op) -> {
+            op.completeWith(ResultBuilder.builder().withColumn("lob", type).andResult().withRow(lob).build());
+        });
+    }
+
+    /**
+     * Write-only channel collecting written bytes. Completes writes either deferred through {@link #completePending()}
+     * or right away, transferring at most three bytes per write.
+     */
+    static class CollectingChannel implements AsynchronousByteChannel {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        private final boolean partial;
+
+        private Runnable pending;
+
+        private boolean open = true;
+
+        CollectingChannel(boolean partial) {
+            this.partial = partial;
+        }
+
+        @Override
+        public <A> void read(ByteBuffer dst, A attachment, CompletionHandler<Integer, ? super A> handler) {
+            throw new NonReadableChannelException();
+        }
+
+        @Override
+        public Future<Integer> read(ByteBuffer dst) {
+            throw new NonReadableChannelException();
+        }
+
+        @Override
+        public <A> void write(ByteBuffer src, A attachment, CompletionHandler<Integer, ? super A> handler) {
+
+            int length = this.partial ? Math.min(3, src.remaining()) : src.remaining();
+            byte[] bytes = new byte[length];
+            src.get(bytes);
+            this.content.write(bytes, 0, length);
+
+            if (this.partial) {
+                handler.completed(length, attachment);
+            } else {
+                this.pending = () -> handler.completed(length, attachment);
+            }
+        }
+
+        @Override
+        public Future<Integer> write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        void completePending() {
+
+            Runnable pending = this.pending;
+            this.pending = null;
+            pending.run();
+        }
+
+        String getContent() {
+            return new String(this.content.toByteArray(), StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.open;
+        }
+
+        @Override
+        public void close() {
+            this.open = false;
+        }
+    }
+}
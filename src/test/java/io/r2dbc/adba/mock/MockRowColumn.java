@@ -133,7 +133,9 @@ public class MockRowColumn implements Result.RowColumn {
 
     @Override
     public int numberOfValuesRemaining() {
-        return columns.size() - currentIndex;
+
+        // excludes the current column
+        return columns.size() - currentIndex - 1;
     }
 
     @Override
@@ -54,6 +54,7 @@ public class MockSession implements Session {
     private final MockOperation<Void> closeOperation = new MockOperation<Void>().onSubmit(() -> setConnectionLifecycle(Lifecycle.CLOSED));
     private final MockOperation<Object> catchOperation = new MockOperation<>();
     private final MockOperation<TransactionOutcome> endTransactionOperation = new MockOperation<>();
+    private final MockOperation<Void> validationOperation = new MockOperation<>();
 
     private Lifecycle lifecycle;
     private MockTransaction transaction = new MockTransaction();
@@ -99,7 +100,7 @@ public class MockSession implements Session {
 
     @Override
     public MockOperation<Void> validationOperation(Validation depth) {
-        throw new UnsupportedOperationException();
+        return validationOperation;
     }
 
     @Override
@@ -36,7 +36,10 @@ public class MockSubmission<T> implements Submission<T> {
 
     @Override
     public CompletionStage<Boolean> cancel() {
-        return CompletableFuture.completedFuture(true);
+
+        canceled = true;
+
+        return CompletableFuture.completedFuture(completionStage.toCompletableFuture().cancel(false));
     }
 
     @Override